@@ -0,0 +1,80 @@
+package com.github.peacetrue.learn.reactive.adapter;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.sample.SamplePublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 转换的开销，所有信号都在当前线程上传递，耗时只包含包装对象，与直接使用 Reactor 对比
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 01:10
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdapterBenchmark {
+
+    private List<Integer> items;
+
+    @Setup
+    public void setup() {
+        items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void toMono(Blackhole blackhole) {
+        PromiseImpl<Integer> promise = new PromiseImpl<>();
+        PromiseAdapters.toMono(promise).subscribe(blackhole::consume);
+        promise.onSuccess(1);
+    }
+
+    @Benchmark
+    public void toMono_baseline(Blackhole blackhole) {
+        Mono.just(1).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fromMono(Blackhole blackhole) {
+        PromiseAdapters.fromMono(Mono.just(1)).whenSuccess(blackhole::consume);
+    }
+
+    @Benchmark
+    public void toCompletableFuture(Blackhole blackhole) {
+        PromiseImpl<Integer> promise = new PromiseImpl<>();
+        PromiseAdapters.toCompletableFuture(promise).thenAccept(blackhole::consume);
+        promise.onSuccess(1);
+    }
+
+    @Benchmark
+    public void fromCompletableFuture(Blackhole blackhole) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        PromiseAdapters.fromCompletableFuture(future).whenSuccess(blackhole::consume);
+        future.complete(1);
+    }
+
+    @Benchmark
+    public void toFlux(Blackhole blackhole) {
+        FlowAdapters.toFlux(new SamplePublisher<>(items)).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void toFlux_baseline(Blackhole blackhole) {
+        Flux.fromIterable(items).subscribe(blackhole::consume);
+    }
+}
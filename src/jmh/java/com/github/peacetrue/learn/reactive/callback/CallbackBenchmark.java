@@ -0,0 +1,44 @@
+package com.github.peacetrue.learn.reactive.callback;
+
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在当前线程上回调，以 Reactor 的 {@link Mono} 作为基准
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 13:52
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbackBenchmark {
+
+    @Benchmark
+    public void invoke(Blackhole blackhole) {
+        CallbackHandler.invoke(() -> 1, blackhole::consume, Schedulers.immediate());
+    }
+
+    @Benchmark
+    public void invoke_mono(Blackhole blackhole) {
+        Mono.fromSupplier(() -> 1).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void publish(Blackhole blackhole) {
+        new CallbackPublisher<>(() -> 1, Schedulers.immediate()).subscribe(new CallbackSubscriber<Integer>() {
+            public void onNext(Integer item) {
+                blackhole.consume(item);
+            }
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.peacetrue.learn.reactive.context;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上下文的构建、查找及在承诺链上传递的开销，与 Reactor 的 {@link Context} 对比
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 01:40
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PromiseContextBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int size;
+
+    private String[] keys;
+    private PromiseContext promiseContext;
+    private Context reactorContext;
+
+    @Setup
+    public void setup() {
+        keys = new String[size];
+        for (int i = 0; i < size; i++) keys[i] = "key" + i;
+        promiseContext = buildPromiseContext();
+        reactorContext = buildReactorContext();
+    }
+
+    @Benchmark
+    public PromiseContext buildPromiseContext() {
+        PromiseContext context = PromiseContext.empty();
+        for (int i = 0; i < keys.length; i++) context = context.put(keys[i], i);
+        return context;
+    }
+
+    @Benchmark
+    public Context buildReactorContext() {
+        Context context = Context.empty();
+        for (int i = 0; i < keys.length; i++) context = context.put(keys[i], i);
+        return context;
+    }
+
+    @Benchmark
+    public void getPromiseContext(Blackhole blackhole) {
+        for (String key : keys) blackhole.consume(promiseContext.<Object>get(key));
+    }
+
+    @Benchmark
+    public void getReactorContext(Blackhole blackhole) {
+        for (String key : keys) blackhole.consume(reactorContext.<Object>get(key));
+    }
+
+    /** 在带有上下文的承诺链上读取上下文 */
+    @Benchmark
+    public void chain(Blackhole blackhole) {
+        PromiseImpl<Integer> promise = promiseContext.call(PromiseImpl::new);
+        promise.thenApply(value -> value + PromiseContext.current().size()).whenSuccess(blackhole::consume);
+        promise.onSuccess(1);
+    }
+
+    /** 没有上下文的承诺链，作为基准 */
+    @Benchmark
+    public void chain_baseline(Blackhole blackhole) {
+        PromiseImpl<Integer> promise = new PromiseImpl<>();
+        promise.thenApply(value -> value + 1).whenSuccess(blackhole::consume);
+        promise.onSuccess(1);
+    }
+}
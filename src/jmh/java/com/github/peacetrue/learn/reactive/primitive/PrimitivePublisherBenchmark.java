@@ -0,0 +1,84 @@
+package com.github.peacetrue.learn.reactive.primitive;
+
+import com.github.peacetrue.learn.reactive.sample.SamplePublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * map、filter、sum 组成的数值管道，对比原始类型发布者和装箱的 {@link SamplePublisher}
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 16:02
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrimitivePublisherBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    private int[] array;
+    private List<Integer> list;
+
+    @Setup
+    public void setup() {
+        array = IntStream.range(0, size).toArray();
+        list = IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void primitive(Blackhole blackhole) {
+        IntPublisher.of(array).map(i -> i * 3).filter(i -> (i & 1) == 0).sum().subscribe(new IntSubscriber() {
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            public void onNext(int item) {
+                blackhole.consume(item);
+            }
+
+            public void onError(Throwable throwable) {
+            }
+
+            public void onComplete() {
+            }
+        });
+    }
+
+    @Benchmark
+    public void boxed(Blackhole blackhole) {
+        new SamplePublisher<>(list).subscribe(new Flow.Subscriber<Integer>() {
+            private int sum;
+
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            public void onNext(Integer item) {
+                Integer mapped = item * 3;
+                if ((mapped & 1) == 0) sum += mapped;
+            }
+
+            public void onError(Throwable throwable) {
+            }
+
+            public void onComplete() {
+                blackhole.consume(sum);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 承诺的创建、完成、注册回调和合并，以 Reactor 的 {@link Mono} 作为基准
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 13:10
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PromiseBenchmark {
+
+    private PromiseImpl<Integer> completed;
+    private Mono<Integer> just;
+
+    @Setup
+    public void setup() {
+        completed = new PromiseImpl<>();
+        completed.onSuccess(1);
+        just = Mono.just(1);
+    }
+
+    @Benchmark
+    public PromiseImpl<Integer> createComplete() {
+        PromiseImpl<Integer> promise = new PromiseImpl<>();
+        promise.onSuccess(1);
+        return promise;
+    }
+
+    @Benchmark
+    public Sinks.One<Integer> createComplete_mono() {
+        Sinks.One<Integer> sink = Sinks.one();
+        sink.tryEmitValue(1);
+        return sink;
+    }
+
+    @Benchmark
+    public void whenSuccessBeforeComplete(Blackhole blackhole) {
+        PromiseImpl<Integer> promise = new PromiseImpl<>();
+        promise.whenSuccess(blackhole::consume);
+        promise.onSuccess(1);
+    }
+
+    @Benchmark
+    public void whenSuccessBeforeComplete_mono(Blackhole blackhole) {
+        Sinks.One<Integer> sink = Sinks.one();
+        sink.asMono().subscribe(blackhole::consume);
+        sink.tryEmitValue(1);
+    }
+
+    @Benchmark
+    public void whenSuccessAfterComplete(Blackhole blackhole) {
+        completed.whenSuccess(blackhole::consume);
+    }
+
+    @Benchmark
+    public void whenSuccessAfterComplete_mono(Blackhole blackhole) {
+        just.subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void zip(Blackhole blackhole) {
+        PromiseImpl<Integer> first = new PromiseImpl<>(), second = new PromiseImpl<>();
+        first.zip(second).whenSuccess(blackhole::consume);
+        first.onSuccess(1);
+        second.onSuccess(2);
+    }
+
+    @Benchmark
+    public void zip_mono(Blackhole blackhole) {
+        Sinks.One<Integer> first = Sinks.one(), second = Sinks.one();
+        Mono.zip(first.asMono(), second.asMono()).subscribe(blackhole::consume);
+        first.tryEmitValue(1);
+        second.tryEmitValue(2);
+    }
+
+}
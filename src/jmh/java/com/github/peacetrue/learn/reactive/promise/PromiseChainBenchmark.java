@@ -0,0 +1,93 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同深度的 thenApplyAsync 链，分别在当前线程和线程池上执行，以 Reactor 的 {@link Mono} 作为基准；
+ * 同时对比在线程池上同步转换的 thenApply 链
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 13:25
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromiseChainBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    private int depth;
+
+    private Scheduler scheduler;
+    private reactor.core.scheduler.Scheduler reactorScheduler;
+
+    @Setup
+    public void setup() {
+        scheduler = Schedulers.newBounded("benchmark", Runtime.getRuntime().availableProcessors());
+        reactorScheduler = reactor.core.scheduler.Schedulers.newParallel("benchmark-reactor");
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+        reactorScheduler.dispose();
+    }
+
+    private static Integer increase(Integer value) {
+        return value + 1;
+    }
+
+    @Benchmark
+    public Integer thenApplyAsync_immediate() {
+        PromiseImpl<Integer> promise = PromiseImpl.invoke(() -> 0, Schedulers.immediate());
+        for (int i = 0; i < depth; i++) promise = promise.thenApplyAsync(PromiseChainBenchmark::increase, Schedulers.immediate());
+        return promise.getValue();
+    }
+
+    @Benchmark
+    public Integer thenApplyAsync_immediate_mono() {
+        Mono<Integer> mono = Mono.fromSupplier(() -> 0);
+        for (int i = 0; i < depth; i++) mono = mono.map(PromiseChainBenchmark::increase);
+        return mono.block();
+    }
+
+    @Benchmark
+    public Integer thenApplyAsync_bounded() throws InterruptedException {
+        PromiseImpl<Integer> promise = PromiseImpl.invoke(() -> 0, scheduler);
+        for (int i = 0; i < depth; i++) promise = promise.thenApplyAsync(PromiseChainBenchmark::increase, scheduler);
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.whenComplete(latch::countDown);
+        latch.await();
+        return promise.getValue();
+    }
+
+    @Benchmark
+    public Integer thenApply_bounded() throws InterruptedException {
+        PromiseImpl<Integer> promise = PromiseImpl.invoke(() -> 0, scheduler);
+        for (int i = 0; i < depth; i++) promise = promise.thenApply(PromiseChainBenchmark::increase);
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.whenComplete(latch::countDown);
+        latch.await();
+        return promise.getValue();
+    }
+
+    @Benchmark
+    public Integer thenApplyAsync_bounded_mono() {
+        Mono<Integer> mono = Mono.fromSupplier(() -> 0).subscribeOn(reactorScheduler);
+        for (int i = 0; i < depth; i++) mono = mono.publishOn(reactorScheduler).map(PromiseChainBenchmark::increase);
+        return mono.block();
+    }
+}
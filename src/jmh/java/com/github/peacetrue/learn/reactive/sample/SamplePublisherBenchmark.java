@@ -0,0 +1,87 @@
+package com.github.peacetrue.learn.reactive.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 以不同的请求数量消费 {@link SamplePublisher}，以 Reactor 的 {@link Flux} 作为基准
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 13:40
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SamplePublisherBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    @Param({"1", "16", "256", "9223372036854775807"})
+    private long request;
+
+    private List<Integer> items;
+
+    @Setup
+    public void setup() {
+        items = IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void emit(Blackhole blackhole) {
+        new SamplePublisher<>(items).subscribe(new Flow.Subscriber<Integer>() {
+            private Flow.Subscription subscription;
+            private long received;
+
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(request);
+            }
+
+            public void onNext(Integer item) {
+                blackhole.consume(item);
+                //当前批次处理完毕，请求下一批
+                if (request != Long.MAX_VALUE && ++received % request == 0) subscription.request(request);
+            }
+
+            public void onError(Throwable throwable) {
+                blackhole.consume(throwable);
+            }
+
+            public void onComplete() {
+            }
+        });
+    }
+
+    @Benchmark
+    public void emit_flux(Blackhole blackhole) {
+        Flux.fromIterable(items).subscribe(new BaseSubscriber<Integer>() {
+            private long received;
+
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(request);
+            }
+
+            protected void hookOnNext(Integer item) {
+                blackhole.consume(item);
+                if (request != Long.MAX_VALUE && ++received % request == 0) request(request);
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同时执行大量阻塞任务，对比不同的调度器
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 14:05
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchedulerBenchmark {
+
+    @Param({"thread", "virtual", "bounded"})
+    private String type;
+
+    @Param({"1000"})
+    private int count;
+
+    private Scheduler scheduler;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "thread":
+                scheduler = Schedulers.newThread("benchmark");
+                break;
+            case "virtual":
+                scheduler = Schedulers.newVirtual("benchmark");
+                break;
+            default:
+                scheduler = Schedulers.newBounded("benchmark", Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void blocking() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            PromiseImpl.invoke(() -> {
+                try {
+                    //模拟 I/O 等待
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "";
+            }, scheduler).whenComplete(latch::countDown);
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.peacetrue.learn.reactive.adapter;
+
+import org.reactivestreams.Publisher;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Publisher} 与 {@link Flux} 之间的转换。
+ * <p>
+ * 基于 Reactor 自带的 {@link JdkFlowAdapter}，只包装订阅者和订阅，信号、请求和取消都直接转发，不切换线程，也没有中间队列。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 00:50
+ **/
+public abstract class FlowAdapters {
+
+    public static <T> Flux<T> toFlux(Flow.Publisher<T> publisher) {
+        return JdkFlowAdapter.flowPublisherToFlux(publisher);
+    }
+
+    public static <T> Flow.Publisher<T> toFlowPublisher(Publisher<T> publisher) {
+        return JdkFlowAdapter.publisherToFlowPublisher(publisher);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.peacetrue.learn.reactive.adapter;
+
+import com.github.peacetrue.learn.reactive.promise.Promise;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.promise.PromiseProcess;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 承诺与 {@link Mono}、{@link CompletableFuture} 之间的转换。
+ * <p>
+ * 完成信号在发出信号的线程上直接传递，不切换线程，也没有中间队列；取消双向传播。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 00:50
+ **/
+public abstract class PromiseAdapters {
+
+    /**
+     * 转换为 {@link Mono}，结果为 null 时为空的 Mono。
+     * 冷启动的 {@link PromiseProcess} 在订阅时启动；订阅者取消时取消承诺。
+     */
+    public static <T> Mono<T> toMono(Promise<T> promise) {
+        Objects.requireNonNull(promise);
+        return Mono.create(sink -> {
+            sink.onCancel(() -> promise.cancel(false));
+            promise.whenDone((value, exception) -> {
+                if (exception != null) sink.error(exception);
+                else if (value == null) sink.success();
+                else sink.success(value);
+            });
+            if (promise instanceof PromiseProcess) ((PromiseProcess<T>) promise).connect();
+        });
+    }
+
+    /** 订阅 {@link Mono}，空的 Mono 以 null 成功；承诺取消时取消订阅 */
+    public static <T> PromiseImpl<T> fromMono(Mono<T> mono) {
+        PromiseImpl<T> promise = new PromiseImpl<>();
+        mono.subscribe(new MonoSubscriber<>(promise));
+        return promise;
+    }
+
+    /** 转换为 {@link CompletableFuture}，取消 future 时取消承诺 */
+    public static <T> CompletableFuture<T> toCompletableFuture(Promise<T> promise) {
+        Objects.requireNonNull(promise);
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) promise.cancel(mayInterruptIfRunning);
+                return cancelled;
+            }
+        };
+        promise.whenDone((value, exception) -> {
+            if (exception == null) future.complete(value);
+            else future.completeExceptionally(exception);
+        });
+        if (promise instanceof PromiseProcess) ((PromiseProcess<T>) promise).connect();
+        return future;
+    }
+
+    /** 转换为承诺，承诺取消时取消 future */
+    public static <T> PromiseImpl<T> fromCompletableFuture(CompletableFuture<T> future) {
+        PromiseImpl<T> promise = new PromiseImpl<>();
+        future.whenComplete((value, exception) -> {
+            if (exception == null) promise.onSuccess(value);
+            else promise.onError(exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception);
+        });
+        promise.whenError(exception -> {
+            if (promise.isCancelled()) future.cancel(false);
+        });
+        return promise;
+    }
+
+    /** 订阅 Mono 并完成承诺，自身不缓存数据 */
+    private static final class MonoSubscriber<T> implements Subscriber<T> {
+        private final PromiseImpl<T> promise;
+
+        private MonoSubscriber(PromiseImpl<T> promise) {
+            this.promise = promise;
+        }
+
+        public void onSubscribe(Subscription subscription) {
+            promise.whenError(exception -> {
+                if (promise.isCancelled()) subscription.cancel();
+            });
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        public void onNext(T item) {
+            promise.onSuccess(item);
+        }
+
+        public void onError(Throwable throwable) {
+            promise.onError(throwable);
+        }
+
+        public void onComplete() {
+            //空的 Mono，已有结果时不生效
+            promise.onComplete();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.peacetrue.learn.reactive.cache;
+
+import com.github.peacetrue.learn.reactive.metrics.Histogram;
+import com.github.peacetrue.learn.reactive.promise.Promise;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.promise.PromiseProcess;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 承诺缓存。
+ * <p>
+ * 同一个键同时只有一次加载：加载期间到达的调用者共享正在执行的承诺，不会重复执行；
+ * 加载成功的结果保留 ttl，超过 maximumSize 时淘汰最久未访问的已完成条目（LRU）；加载失败时立即移除，下次调用重新加载。
+ * 加载中的条目不会被淘汰，否则同一个键会再次加载，因此并发加载的键较多时条目数可能暂时超过 maximumSize。
+ * 每次调用返回一个新的承诺，调用者取消自己的承诺不影响其他调用者和正在进行的加载。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 23:40
+ **/
+@Slf4j
+public class PromiseCache<K, V> {
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    /** 按访问顺序排列，只在锁内访问 */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    /** 加载耗时，纳秒 */
+    private final Histogram loadTime = new Histogram();
+
+    /**
+     * @param maximumSize 最多缓存的条目数，超出时只淘汰已完成的条目
+     * @param ttl         加载成功后的有效期
+     */
+    public PromiseCache(int maximumSize, Duration ttl) {
+        if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be > 0");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 获取缓存的结果，不存在、已过期时调用 loader 加载
+     *
+     * @param key    键
+     * @param loader 加载函数，返回的承诺完成时结束加载
+     * @return 结果的承诺
+     */
+    public PromiseImpl<V> get(K key, Function<? super K, ? extends Promise<V>> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        Entry<V> entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry<>();
+                entries.put(key, entry);
+                evict();
+                load = true;
+            }
+        }
+        if (load) {
+            misses.increment();
+            load(key, entry, loader);
+        } else {
+            hits.increment();
+        }
+        return copy(entry.promise);
+    }
+
+    /** 超出容量时淘汰最久未访问的已完成条目，跳过加载中的条目，在锁内调用 */
+    private void evict() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maximumSize && iterator.hasNext()) {
+            if (!iterator.next().promise.isCompleted()) continue;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private void load(K key, Entry<V> entry, Function<? super K, ? extends Promise<V>> loader) {
+        long start = System.nanoTime();
+        Promise<V> promise;
+        try {
+            promise = Objects.requireNonNull(loader.apply(key), "loader returned null");
+        } catch (Throwable exception) {
+            loaded(key, entry, start, null, exception);
+            return;
+        }
+        promise.whenDone((value, exception) -> loaded(key, entry, start, value, exception));
+        if (promise instanceof PromiseProcess) ((PromiseProcess<V>) promise).connect();
+    }
+
+    private void loaded(K key, Entry<V> entry, long start, V value, Throwable exception) {
+        long end = System.nanoTime();
+        loadTime.record(end - start);
+        if (exception == null) {
+            loadSuccesses.increment();
+            entry.expiresAt = end + ttlNanos;
+            entry.promise.onSuccess(value);
+            //加载期间可能因跳过加载中的条目而超出容量
+            synchronized (this) {
+                evict();
+            }
+            return;
+        }
+        loadFailures.increment();
+        //先移除再通知，调用者在回调中重试时会重新加载
+        synchronized (this) {
+            entries.remove(key, entry);
+        }
+        log.debug("load '{}' failed, evicted", key);
+        entry.promise.onError(exception);
+    }
+
+    private static <V> PromiseImpl<V> copy(PromiseImpl<V> shared) {
+        PromiseImpl<V> promise = new PromiseImpl<>();
+        shared.whenDone((value, exception) -> {
+            if (exception == null) promise.onSuccess(value);
+            else promise.onError(exception);
+        });
+        return promise;
+    }
+
+    /** 移除键，正在进行的加载不受影响，但其结果不再缓存 */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /** @return 条目数，包括加载中和已过期但尚未清理的条目 */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public PromiseCacheStats stats() {
+        return new PromiseCacheStats(
+                hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), evictions.sum(),
+                loadTime.snapshot()
+        );
+    }
+
+    private static final class Entry<V> {
+        private final PromiseImpl<V> promise = new PromiseImpl<>();
+        /** 加载成功后才设置，加载中的条目不会过期 */
+        private volatile long expiresAt;
+
+        private boolean isExpired(long now) {
+            return promise.isSuccess() && now - expiresAt >= 0;
+        }
+    }
+}
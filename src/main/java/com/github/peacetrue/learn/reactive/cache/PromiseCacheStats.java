@@ -0,0 +1,48 @@
+package com.github.peacetrue.learn.reactive.cache;
+
+import com.github.peacetrue.learn.reactive.metrics.HistogramSnapshot;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * 承诺缓存的统计
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 23:40
+ **/
+@Getter
+@ToString
+public class PromiseCacheStats {
+
+    /** 命中次数，包括共享正在进行的加载 */
+    private final long hits;
+    private final long misses;
+    private final long loadSuccesses;
+    private final long loadFailures;
+    /** 因容量或过期淘汰的条目数 */
+    private final long evictions;
+    /** 加载耗时，纳秒 */
+    private final HistogramSnapshot loadTime;
+
+    PromiseCacheStats(long hits, long misses, long loadSuccesses, long loadFailures, long evictions, HistogramSnapshot loadTime) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loadSuccesses = loadSuccesses;
+        this.loadFailures = loadFailures;
+        this.evictions = evictions;
+        this.loadTime = loadTime;
+    }
+
+    /** @return 命中率，没有请求时为 1 */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /** @return 平均加载耗时 */
+    public Duration getAverageLoadTime() {
+        return Duration.ofNanos((long) loadTime.getMean());
+    }
+}
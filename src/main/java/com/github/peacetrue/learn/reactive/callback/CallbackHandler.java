@@ -1,5 +1,9 @@
 package com.github.peacetrue.learn.reactive.callback;
 
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 /**
@@ -16,15 +20,24 @@ public interface CallbackHandler<T> {
     }
 
     static <T> void invoke(Supplier<T> action, CallbackHandler<T> handler) {
-        new Thread(() -> {
-            try {
-                handler.onSuccess(action.get());
-            } catch (Throwable exception) {
-                handler.onError(exception);
-            } finally {
-                handler.onComplete();
-            }
-        }).start();
+        invoke(action, handler, Schedulers.defaults());
+    }
+
+    static <T> void invoke(Supplier<T> action, CallbackHandler<T> handler, Scheduler scheduler) {
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    handler.onSuccess(action.get());
+                } catch (Throwable exception) {
+                    handler.onError(exception);
+                } finally {
+                    handler.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            handler.onError(exception);
+            handler.onComplete();
+        }
     }
 
 }
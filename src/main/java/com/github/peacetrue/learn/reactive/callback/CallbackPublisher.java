@@ -1,10 +1,13 @@
 package com.github.peacetrue.learn.reactive.callback;
 
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 /**
@@ -17,17 +20,28 @@ import java.util.function.Supplier;
 public class CallbackPublisher<T> implements Flow.Publisher<T> {
 
     private Supplier<T> action;
+    private Scheduler scheduler = Schedulers.defaults();
+
+    public CallbackPublisher(Supplier<T> action) {
+        this(action, Schedulers.defaults());
+    }
 
     @Override
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
-        new Thread(() -> {
-            try {
-                subscriber.onNext(action.get());
-            } catch (Exception exception) {
-                subscriber.onError(exception);
-            } finally {
-                subscriber.onComplete();
-            }
-        }).start();
+        try {
+            scheduler.schedule(() -> {
+                try {
+                    subscriber.onNext(action.get());
+                } catch (Exception exception) {
+                    subscriber.onError(exception);
+                } finally {
+                    subscriber.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            //与 CallbackHandler#invoke 一致，调度器拒绝时通过订阅者通知而不是抛给调用方
+            subscriber.onError(exception);
+            subscriber.onComplete();
+        }
     }
 }
@@ -1,24 +1,233 @@
 package com.github.peacetrue.learn.reactive.callback;
 
-import lombok.Data;
-import lombok.ToString;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * 回调结果
+ * 回调结果。
+ * <p>
+ * 结果和异常封装在一个不可变的对象中，通过一次 CAS 发布，读到已完成时一定能读到对应的结果或异常，只有第一次完成生效。
+ * 等待的线程先短暂自旋，仍未完成时压入等待栈后挂起；完成时取走整个等待栈逐个唤醒，不需要加锁。
+ * 超时或中断退出的等待者将自身标记为失效并从栈中摘除，反复限时等待不会使等待栈无限增长。
  **/
-@Data
-@ToString
 public class CallbackResult<T> {
 
-    private volatile boolean completed;
-    private T value;
-    private Throwable exception;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CallbackResult, Done> RESULT =
+            AtomicReferenceFieldUpdater.newUpdater(CallbackResult.class, Done.class, "result");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CallbackResult, Waiter> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(CallbackResult.class, Waiter.class, "waiters");
+    /** 挂起前的自旋次数，单核时自旋没有意义 */
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 8 : 0;
+
+    private volatile Done result;
+    /** 等待栈 */
+    private volatile Waiter waiters;
+
+    public void setValue(T value) {
+        complete(value, null);
+    }
+
+    public void setException(Throwable exception) {
+        complete(null, exception);
+    }
+
+    /** 未经 {@link #setValue(Object)} 或 {@link #setException(Throwable)} 直接完成时，视为结果为 null；完成后不能重置 */
+    public void setCompleted(boolean completed) {
+        if (completed) complete(null, null);
+    }
+
+    /**
+     * 完成，只有第一次调用生效
+     *
+     * @return true 如果本次调用完成了结果
+     */
+    protected boolean complete(T value, Throwable exception) {
+        if (!RESULT.compareAndSet(this, null, new Done(value, exception))) return false;
+        wakeWaiters();
+        return true;
+    }
+
+    /** 唤醒所有等待者，子类以其他方式完成后需要调用 */
+    protected final void wakeWaiters() {
+        if (waiters == null) return;
+        Waiter waiter = WAITERS.getAndSet(this, null);
+        while (waiter != null) {
+            Thread thread = waiter.thread;
+            if (thread != null) LockSupport.unpark(thread);
+            waiter = waiter.next;
+        }
+    }
+
+    public boolean isCompleted() {
+        return result != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        Done current = result;
+        return current == null ? null : (T) current.value;
+    }
+
+    public Throwable getException() {
+        Done current = result;
+        return current == null ? null : current.exception;
+    }
 
     public boolean isSuccess() {
-        return completed && exception == null;
+        Done current = result;
+        return current != null && current.exception == null;
     }
 
     public boolean isError() {
-        return completed && exception != null;
+        Done current = result;
+        return current != null && current.exception != null;
+    }
+
+    /**
+     * 等待完成，等待期间不响应中断，返回前恢复中断状态
+     *
+     * @return 结果
+     * @throws CancellationException 已取消
+     * @throws CompletionException   以其他异常完成
+     */
+    public T join() {
+        if (!isCompleted()) {
+            try {
+                await(false, 0L);
+            } catch (InterruptedException exception) {
+                //不响应中断时不会抛出
+                throw new IllegalStateException(exception);
+            }
+        }
+        Throwable exception = getException();
+        if (exception == null) return getValue();
+        if (exception instanceof CancellationException) throw (CancellationException) exception;
+        throw new CompletionException(exception);
+    }
+
+    /**
+     * 限时等待完成
+     *
+     * @return 结果
+     * @throws CancellationException 已取消
+     * @throws ExecutionException    以其他异常完成
+     * @throws TimeoutException      超时未完成
+     * @throws InterruptedException  等待时被中断
+     */
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!isCompleted() && !await(true, System.nanoTime() + Math.max(1L, unit.toNanos(timeout)))) {
+            throw new TimeoutException("result not completed after " + timeout + " " + unit);
+        }
+        Throwable exception = getException();
+        if (exception == null) return getValue();
+        if (exception instanceof CancellationException) throw (CancellationException) exception;
+        throw new ExecutionException(exception);
+    }
+
+    /**
+     * 自旋后挂起，直到完成或超时
+     *
+     * @param interruptible 是否响应中断，不响应时返回前恢复中断状态
+     * @param deadline      截止时间，0 表示不限
+     * @return true 如果已完成，false 如果已超时
+     */
+    private boolean await(boolean interruptible, long deadline) throws InterruptedException {
+        for (int i = 0; i < SPINS; i++) {
+            if (isCompleted()) return true;
+            Thread.onSpinWait();
+        }
+        Waiter waiter = new Waiter(Thread.currentThread()), current;
+        do {
+            current = waiters;
+            waiter.next = current;
+        } while (!WAITERS.compareAndSet(this, current, waiter));
+        boolean interrupted = false;
+        try {
+            //入栈后再检查，完成者要么看到该等待者，要么该等待者看到已完成
+            while (!isCompleted()) {
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        removeWaiter(waiter);
+                        throw new InterruptedException();
+                    }
+                    interrupted = true;
+                }
+                if (deadline == 0L) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    removeWaiter(waiter);
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 将等待者标记为失效，并摘除栈中所有失效的等待者。
+     * 与其他线程并发摘除时，前驱可能同时失效，此时从栈顶重新遍历。
+     */
+    private void removeWaiter(Waiter waiter) {
+        waiter.thread = null;
+        retry:
+        for (; ; ) {
+            for (Waiter previous = null, current = waiters, next; current != null; current = next) {
+                next = current.next;
+                if (current.thread != null) {
+                    previous = current;
+                } else if (previous != null) {
+                    previous.next = next;
+                    if (previous.thread == null) continue retry;
+                } else if (!WAITERS.compareAndSet(this, current, next)) {
+                    continue retry;
+                }
+            }
+            return;
+        }
+    }
+
+    /** @return 等待栈中的节点数 */
+    int waiterCount() {
+        int count = 0;
+        for (Waiter waiter = waiters; waiter != null; waiter = waiter.next) count++;
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(completed=" + isCompleted() + ", value=" + getValue() + ", exception=" + getException() + ")";
+    }
+
+    private static final class Done {
+        private final Object value;
+        private final Throwable exception;
+
+        private Done(Object value, Throwable exception) {
+            this.value = value;
+            this.exception = exception;
+        }
+    }
+
+    private static final class Waiter {
+        /** 超时或中断退出时置为 null */
+        private volatile Thread thread;
+        private volatile Waiter next;
+
+        private Waiter(Thread thread) {
+            this.thread = thread;
+        }
     }
 }
@@ -0,0 +1,260 @@
+package com.github.peacetrue.learn.reactive.context;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * 条目较多的上下文，基于哈希数组映射前缀树（HAMT）。
+ * <p>
+ * 每层取哈希值的 5 位作为下标，节点以位图记录存在的下标，数组中只存放存在的条目，
+ * 修改时只复制从根到目标节点的路径，其余节点在新旧上下文间共享。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 01:40
+ **/
+final class HamtContext extends PromiseContext {
+
+    private static final int BITS = 5, MASK = (1 << BITS) - 1;
+
+    private final BitmapNode root;
+    private final int size;
+
+    private HamtContext(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** 由 {@link SmallContext} 的键值数组创建 */
+    static HamtContext of(Object[] entries) {
+        BitmapNode root = BitmapNode.EMPTY;
+        for (int i = 0; i < entries.length; i += 2) {
+            root = (BitmapNode) root.put(entries[i], hash(entries[i]), entries[i + 1], 0);
+        }
+        return new HamtContext(root, entries.length >> 1);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    Object find(Object key) {
+        return root.find(key, hash(key), 0);
+    }
+
+    @Override
+    public PromiseContext put(Object key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        int hash = hash(key);
+        boolean exists = root.find(key, hash, 0) != null;
+        BitmapNode updated = (BitmapNode) root.put(key, hash, value, 0);
+        if (updated == root) return this;
+        return new HamtContext(updated, exists ? size : size + 1);
+    }
+
+    @Override
+    public PromiseContext delete(Object key) {
+        int hash = hash(Objects.requireNonNull(key));
+        if (root.find(key, hash, 0) == null) return this;
+        //条目减少到一定数量时转回扁平数组
+        if (size - 1 <= SmallContext.MAX_SIZE) {
+            Object[] entries = new Object[(size - 1) << 1];
+            int[] index = {0};
+            forEach((currentKey, value) -> {
+                if (currentKey.equals(key)) return;
+                entries[index[0]++] = currentKey;
+                entries[index[0]++] = value;
+            });
+            return new SmallContext(entries);
+        }
+        return new HamtContext((BitmapNode) root.remove(key, hash, 0), size - 1);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> action) {
+        root.forEach(action);
+    }
+
+    private abstract static class Node {
+        /** @return 键对应的值，不存在时返回 null */
+        abstract Object find(Object key, int hash, int shift);
+
+        /** @return 添加或替换后的节点，未变化时返回当前节点 */
+        abstract Node put(Object key, int hash, Object value, int shift);
+
+        /** @return 删除后的节点，未变化时返回当前节点，为空时返回 null */
+        abstract Node remove(Object key, int hash, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /** 位图节点，数组中每个下标占两个位置：键和值，或者 null 和子节点 */
+    private static final class BitmapNode extends Node {
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) << 1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            int index = index(bit);
+            Object current = array[index], value = array[index + 1];
+            if (current == null) return ((Node) value).find(key, hash, shift + BITS);
+            return current == key || current.equals(key) ? value : null;
+        }
+
+        @Override
+        Node put(Object key, int hash, Object value, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] updated = new Object[array.length + 2];
+                System.arraycopy(array, 0, updated, 0, index);
+                updated[index] = key;
+                updated[index + 1] = value;
+                System.arraycopy(array, index, updated, index + 2, array.length - index);
+                return new BitmapNode(bitmap | bit, updated);
+            }
+            Object current = array[index], currentValue = array[index + 1];
+            if (current == null) {
+                Node child = ((Node) currentValue).put(key, hash, value, shift + BITS);
+                return child == currentValue ? this : with(index, null, child);
+            }
+            if (current == key || current.equals(key)) {
+                return currentValue == value ? this : with(index, current, value);
+            }
+            //同一下标上的不同键，下沉到子节点
+            return with(index, null, create(current, hash(current), currentValue, key, hash, value, shift + BITS));
+        }
+
+        private static Node create(Object key1, int hash1, Object value1,
+                                   Object key2, int hash2, Object value2, int shift) {
+            if (hash1 == hash2) return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            return EMPTY.put(key1, hash1, value1, shift).put(key2, hash2, value2, shift);
+        }
+
+        private BitmapNode with(int index, Object key, Object value) {
+            Object[] updated = array.clone();
+            updated[index] = key;
+            updated[index + 1] = value;
+            return new BitmapNode(bitmap, updated);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int index = index(bit);
+            Object current = array[index], currentValue = array[index + 1];
+            if (current == null) {
+                Node child = ((Node) currentValue).remove(key, hash, shift + BITS);
+                if (child == currentValue) return this;
+                return child == null ? without(bit, index) : with(index, null, child);
+            }
+            return current == key || current.equals(key) ? without(bit, index) : this;
+        }
+
+        private BitmapNode without(int bit, int index) {
+            if (bitmap == bit) return null;
+            Object[] updated = new Object[array.length - 2];
+            System.arraycopy(array, 0, updated, 0, index);
+            System.arraycopy(array, index + 2, updated, index, array.length - index - 2);
+            return new BitmapNode(bitmap ^ bit, updated);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) ((Node) array[i + 1]).forEach(action);
+                else action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    /** 哈希值完全相同的键，线性查找 */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        /** 键值交替存放 */
+        private final Object[] entries;
+
+        private CollisionNode(int hash, Object[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i].equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            if (hash != this.hash) return null;
+            int index = indexOf(key);
+            return index < 0 ? null : entries[index + 1];
+        }
+
+        @Override
+        Node put(Object key, int hash, Object value, int shift) {
+            if (hash != this.hash) {
+                //哈希值不同，以位图节点包裹后再添加
+                return new BitmapNode(BitmapNode.bit(this.hash, shift), new Object[]{null, this})
+                        .put(key, hash, value, shift);
+            }
+            int index = indexOf(key);
+            Object[] updated;
+            if (index >= 0) {
+                if (entries[index + 1] == value) return this;
+                updated = entries.clone();
+                updated[index + 1] = value;
+            } else {
+                updated = Arrays.copyOf(entries, entries.length + 2);
+                updated[entries.length] = key;
+                updated[entries.length + 1] = value;
+            }
+            return new CollisionNode(hash, updated);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            if (hash != this.hash) return this;
+            int index = indexOf(key);
+            if (index < 0) return this;
+            if (entries.length == 2) return null;
+            Object[] updated = new Object[entries.length - 2];
+            System.arraycopy(entries, 0, updated, 0, index);
+            System.arraycopy(entries, index + 2, updated, index, entries.length - index - 2);
+            return new CollisionNode(hash, updated);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < entries.length; i += 2) action.accept(entries[i], entries[i + 1]);
+        }
+    }
+}
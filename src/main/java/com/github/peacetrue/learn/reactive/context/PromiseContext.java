@@ -0,0 +1,139 @@
+package com.github.peacetrue.learn.reactive.context;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 承诺链的上下文，不可变的持久化映射，用于在异步调用间传递 userId 等共享变量。
+ * <p>
+ * 修改操作返回新的上下文，原上下文不变，因此可以在线程间安全共享。
+ * 不超过 {@link SmallContext#MAX_SIZE} 个条目时使用扁平数组，查找只需几次比较，每次修改只复制一个小数组；
+ * 更多条目时使用哈希数组映射前缀树（HAMT），每次修改只复制从根到目标的路径。
+ * <p>
+ * 承诺在创建时捕获当前线程的上下文，派生的承诺沿用上游的上下文，
+ * 回调和异步转换执行期间恢复该上下文，因此在任何调度器上都可以通过 {@link #current()} 读取。
+ * 从未设置过上下文时，捕获和恢复都不读取线程变量。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 01:40
+ **/
+public abstract class PromiseContext {
+
+    private static final ThreadLocal<PromiseContext> CURRENT = new ThreadLocal<>();
+    /** 是否设置过非空的上下文，未设置过时不需要读写线程变量 */
+    private static volatile boolean used;
+
+    public static PromiseContext empty() {
+        return SmallContext.EMPTY;
+    }
+
+    public static PromiseContext of(Object key, Object value) {
+        return SmallContext.EMPTY.put(key, value);
+    }
+
+    /** @return 当前线程的上下文，未设置时为空上下文 */
+    public static PromiseContext current() {
+        if (!used) return SmallContext.EMPTY;
+        PromiseContext context = CURRENT.get();
+        return context == null ? SmallContext.EMPTY : context;
+    }
+
+    /**
+     * 设置当前线程的上下文，执行结束后应当以返回值恢复
+     *
+     * @param context 新的上下文
+     * @return 原来的上下文
+     */
+    public static PromiseContext swap(PromiseContext context) {
+        if (!used) {
+            if (context.isEmpty()) return SmallContext.EMPTY;
+            used = true;
+        }
+        PromiseContext previous = CURRENT.get();
+        if (previous == null) previous = SmallContext.EMPTY;
+        if (previous != context) CURRENT.set(context.isEmpty() ? null : context);
+        return previous;
+    }
+
+    /** 在当前上下文中执行 action，期间创建的承诺链都携带当前上下文 */
+    public <T> T call(Supplier<T> action) {
+        PromiseContext previous = swap(this);
+        try {
+            return action.get();
+        } finally {
+            swap(previous);
+        }
+    }
+
+    /** @see #call(Supplier) */
+    public void run(Runnable action) {
+        PromiseContext previous = swap(this);
+        try {
+            action.run();
+        } finally {
+            swap(previous);
+        }
+    }
+
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** @return 键对应的值，不存在时返回 null */
+    abstract Object find(Object key);
+
+    public boolean hasKey(Object key) {
+        return find(Objects.requireNonNull(key)) != null;
+    }
+
+    /**
+     * @throws NoSuchElementException 键不存在
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key) {
+        Object value = find(Objects.requireNonNull(key));
+        if (value == null) throw new NoSuchElementException("context does not contain key: " + key);
+        return (T) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getOrDefault(Object key, T defaultValue) {
+        Object value = find(Objects.requireNonNull(key));
+        return value == null ? defaultValue : (T) value;
+    }
+
+    /**
+     * 添加或替换条目
+     *
+     * @param key   键，不能为 null
+     * @param value 值，不能为 null
+     * @return 新的上下文，值未变化时返回当前上下文
+     */
+    public abstract PromiseContext put(Object key, Object value);
+
+    /** @return 删除条目后的上下文，键不存在时返回当前上下文 */
+    public abstract PromiseContext delete(Object key);
+
+    /** @return 合并后的上下文，键相同时以 other 为准 */
+    public PromiseContext putAll(PromiseContext other) {
+        if (other.isEmpty()) return this;
+        if (this.isEmpty()) return other;
+        PromiseContext[] merged = {this};
+        other.forEach((key, value) -> merged[0] = merged[0].put(key, value));
+        return merged[0];
+    }
+
+    public abstract void forEach(BiConsumer<Object, Object> action);
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PromiseContext{");
+        forEach((key, value) -> builder.append(key).append('=').append(value).append(", "));
+        if (!isEmpty()) builder.setLength(builder.length() - 2);
+        return builder.append('}').toString();
+    }
+}
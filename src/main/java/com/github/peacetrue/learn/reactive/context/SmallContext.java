@@ -0,0 +1,79 @@
+package com.github.peacetrue.learn.reactive.context;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * 条目较少的上下文，键值交替存放在一个数组中，按添加顺序线性查找
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 01:40
+ **/
+final class SmallContext extends PromiseContext {
+
+    /** 超过该数量时转为 {@link HamtContext} */
+    static final int MAX_SIZE = 8;
+    static final SmallContext EMPTY = new SmallContext(new Object[0]);
+
+    /** 键值交替存放 */
+    private final Object[] entries;
+
+    SmallContext(Object[] entries) {
+        this.entries = entries;
+    }
+
+    @Override
+    public int size() {
+        return entries.length >> 1;
+    }
+
+    private int indexOf(Object key) {
+        Object[] entries = this.entries;
+        for (int i = 0; i < entries.length; i += 2) {
+            Object current = entries[i];
+            if (current == key || current.equals(key)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    Object find(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : entries[index + 1];
+    }
+
+    @Override
+    public PromiseContext put(Object key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (entries[index + 1] == value) return this;
+            Object[] updated = entries.clone();
+            updated[index + 1] = value;
+            return new SmallContext(updated);
+        }
+        if (size() == MAX_SIZE) return HamtContext.of(entries).put(key, value);
+        Object[] updated = Arrays.copyOf(entries, entries.length + 2);
+        updated[entries.length] = key;
+        updated[entries.length + 1] = value;
+        return new SmallContext(updated);
+    }
+
+    @Override
+    public PromiseContext delete(Object key) {
+        int index = indexOf(Objects.requireNonNull(key));
+        if (index < 0) return this;
+        if (entries.length == 2) return EMPTY;
+        Object[] updated = new Object[entries.length - 2];
+        System.arraycopy(entries, 0, updated, 0, index);
+        System.arraycopy(entries, index + 2, updated, index, entries.length - index - 2);
+        return new SmallContext(updated);
+    }
+
+    @Override
+    public void forEach(BiConsumer<Object, Object> action) {
+        for (int i = 0; i < entries.length; i += 2) action.accept(entries[i], entries[i + 1]);
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.peacetrue.learn.reactive.file;
+
+import com.github.peacetrue.learn.reactive.flow.Subscriptions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存映射文件发布者。
+ * <p>
+ * 每个订阅者独立打开文件，按窗口大小依次映射文件，每次请求发布一个只读的数据块，数据块是映射窗口的切片，不复制数据。
+ * 数据块在窗口被回收前有效，订阅者不应长期持有。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 16:20
+ **/
+@Slf4j
+public class MappedFilePublisher implements Flow.Publisher<ByteBuffer> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final int chunkSize;
+    private final long windowSize;
+
+    public MappedFilePublisher(Path path) {
+        this(path, DEFAULT_CHUNK_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param path       文件路径
+     * @param chunkSize  数据块大小
+     * @param windowSize 映射窗口大小，向下对齐到数据块大小的整数倍，不超过 {@link Integer#MAX_VALUE}
+     */
+    public MappedFilePublisher(Path path, int chunkSize, long windowSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be > 0");
+        if (windowSize < chunkSize) throw new IllegalArgumentException("windowSize must be >= chunkSize");
+        this.path = Objects.requireNonNull(path);
+        this.chunkSize = chunkSize;
+        this.windowSize = Math.min(windowSize, Integer.MAX_VALUE) / chunkSize * chunkSize;
+    }
+
+    /** @return 按行拆分的发布者 */
+    public RecordSplitter lines() {
+        return RecordSplitter.lines(this);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        FileChannel channel;
+        long size;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+        } catch (IOException exception) {
+            subscriber.onSubscribe(Subscriptions.EMPTY);
+            subscriber.onError(exception);
+            return;
+        }
+        subscriber.onSubscribe(new MappedFileSubscription(subscriber, channel, size));
+    }
+
+    /** 自身即未满足的请求数量，发布方式同 SamplePublisher */
+    private class MappedFileSubscription extends AtomicLong implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final FileChannel channel;
+        private final long size;
+        /** 以下字段只在发布数据的线程上访问 */
+        private long position;
+        private long windowStart;
+        private MappedByteBuffer window;
+        private volatile boolean cancelled;
+
+        private MappedFileSubscription(Flow.Subscriber<? super ByteBuffer> subscriber, FileChannel channel, long size) {
+            this.subscriber = subscriber;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancel();
+                subscriber.onError(exception);
+                return;
+            }
+            if (Subscriptions.addCap(this, n) == 0) drain(n);
+        }
+
+        private void drain(long requested) {
+            long emitted = 0;
+            for (; ; ) {
+                while (emitted != requested && position != size) {
+                    if (cancelled) {
+                        close();
+                        return;
+                    }
+                    ByteBuffer chunk;
+                    try {
+                        chunk = nextChunk();
+                    } catch (IOException exception) {
+                        cancelled = true;
+                        close();
+                        subscriber.onError(exception);
+                        return;
+                    }
+                    subscriber.onNext(chunk);
+                    emitted++;
+                }
+
+                if (cancelled || position == size) {
+                    close();
+                    if (!cancelled) subscriber.onComplete();
+                    return;
+                }
+
+                requested = get();
+                if (requested == emitted) {
+                    requested = Subscriptions.produced(this, emitted);
+                    if (requested == 0) return;
+                    emitted = 0;
+                }
+            }
+        }
+
+        private ByteBuffer nextChunk() throws IOException {
+            if (window == null || position == windowStart + window.capacity()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+            }
+            int offset = (int) (position - windowStart);
+            int length = (int) Math.min(chunkSize, window.capacity() - offset);
+            position += length;
+            ByteBuffer chunk = window.duplicate();
+            chunk.position(offset).limit(offset + length);
+            return chunk.slice();
+        }
+
+        private void close() {
+            window = null;
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                log.warn("close file channel exception", exception);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            //没有线程在发布数据时，由当前线程关闭文件
+            if (Subscriptions.addCap(this, 1) == 0) drain(1);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.peacetrue.learn.reactive.file;
+
+import com.github.peacetrue.learn.reactive.flow.Subscriptions;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按分隔符将数据块拆分为记录，记录不包含分隔符。
+ * <p>
+ * 记录位于单个数据块内时，发布的是数据块的切片，不复制数据；
+ * 只有跨越数据块边界的记录，才会复制到新的缓冲区中。
+ * 每次只向上游请求一个数据块，当前数据块拆分完毕且下游仍有请求时才请求下一个。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 16:45
+ **/
+public class RecordSplitter implements Flow.Publisher<ByteBuffer> {
+
+    private final Flow.Publisher<ByteBuffer> source;
+    private final byte delimiter;
+    /** 是否去除记录末尾的 '\r' */
+    private final boolean trimCarriageReturn;
+
+    public RecordSplitter(Flow.Publisher<ByteBuffer> source, byte delimiter) {
+        this(source, delimiter, false);
+    }
+
+    private RecordSplitter(Flow.Publisher<ByteBuffer> source, byte delimiter, boolean trimCarriageReturn) {
+        this.source = Objects.requireNonNull(source);
+        this.delimiter = delimiter;
+        this.trimCarriageReturn = trimCarriageReturn;
+    }
+
+    /** @return 按 '\n' 或 "\r\n" 拆分的发布者 */
+    public static RecordSplitter lines(Flow.Publisher<ByteBuffer> source) {
+        return new RecordSplitter(source, (byte) '\n', true);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        source.subscribe(new SplitSubscriber(subscriber));
+    }
+
+    private class SplitSubscriber implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Flow.Subscription upstream;
+        /** 上游发布的数据块，每次只请求一个，因此只需要一个位置 */
+        private volatile ByteBuffer incoming;
+        private volatile boolean done;
+        private Throwable exception;
+        private volatile boolean cancelled;
+        /** 以下字段只在 drain 中访问 */
+        private ByteBuffer current;
+        private boolean upstreamRequested;
+        private boolean terminated;
+        /** 跨越数据块边界的记录 */
+        private ByteBuffer carry = ByteBuffer.allocate(256);
+
+        private SplitSubscriber(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            incoming = item;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            exception = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancel();
+                downstream.onError(exception);
+                return;
+            }
+            Subscriptions.addCap(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                if (terminated) return;
+                long demand = requested.get(), emitted = 0;
+                while (emitted != demand) {
+                    if (cancelled) return;
+                    if (current == null || !current.hasRemaining()) {
+                        ByteBuffer next = incoming;
+                        if (next != null) {
+                            incoming = null;
+                            current = next;
+                            upstreamRequested = false;
+                            continue;
+                        }
+                        if (done) break;
+                        if (!upstreamRequested) {
+                            upstreamRequested = true;
+                            upstream.request(1);
+                            //同步发布的上游会在 request 中调用 onNext
+                            if (incoming != null) continue;
+                        }
+                        break;
+                    }
+                    ByteBuffer record = nextRecord(current);
+                    if (record != null) {
+                        downstream.onNext(record);
+                        emitted++;
+                    }
+                }
+
+                if (emitted != 0) Subscriptions.produced(requested, emitted);
+                if (done && incoming == null && (current == null || !current.hasRemaining())) {
+                    //最后一条记录没有分隔符
+                    if (carry.position() > 0) {
+                        if (requested.get() == 0) {
+                            missed = wip.addAndGet(-missed);
+                            continue;
+                        }
+                        downstream.onNext(trim(copyCarry()));
+                        Subscriptions.produced(requested, 1);
+                    }
+                    terminated = true;
+                    if (exception != null) downstream.onError(exception);
+                    else downstream.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /** @return 下一条完整的记录，数据块中剩余的数据不足一条记录时返回 null */
+        private ByteBuffer nextRecord(ByteBuffer chunk) {
+            int start = chunk.position(), limit = chunk.limit();
+            for (int i = start; i < limit; i++) {
+                if (chunk.get(i) != delimiter) continue;
+                chunk.position(i + 1);
+                if (carry.position() == 0) return trim(slice(chunk, start, i));
+                append(chunk, start, i);
+                return trim(copyCarry());
+            }
+            append(chunk, start, limit);
+            chunk.position(limit);
+            return null;
+        }
+
+        private ByteBuffer slice(ByteBuffer chunk, int from, int to) {
+            ByteBuffer record = chunk.duplicate();
+            record.position(from).limit(to);
+            return record.slice();
+        }
+
+        private ByteBuffer trim(ByteBuffer record) {
+            int limit = record.limit();
+            if (trimCarriageReturn && limit > 0 && record.get(limit - 1) == '\r') record.limit(limit - 1);
+            return record;
+        }
+
+        private void append(ByteBuffer chunk, int from, int to) {
+            int length = to - from;
+            if (carry.remaining() < length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(carry.capacity() * 2, carry.position() + length));
+                carry.flip();
+                larger.put(carry);
+                carry = larger;
+            }
+            carry.put(slice(chunk, from, to));
+        }
+
+        private ByteBuffer copyCarry() {
+            carry.flip();
+            ByteBuffer record = ByteBuffer.allocate(carry.remaining());
+            record.put(carry).flip();
+            carry.clear();
+            return record.asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 广播发布者，只订阅一次上游，将数据分发给多个订阅者。
+ * <p>
+ * 每个订阅者有独立的请求数量和有界环形缓冲区（上游线程写、订阅者的发布循环读），
+ * 订阅者处理较慢、缓冲区已满时按 {@link Overflow} 处理。
+ * 可选的重放缓冲区保存最近的若干条数据，晚到的订阅者先收到这些数据，不需要重新读取上游。
+ * <p>
+ * 订阅不会触发上游，订阅者就绪后调用 {@link #connect()} 订阅上游，之后到达的订阅者只能收到重放数据和后续数据。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 21:30
+ **/
+public class BroadcastPublisher<T> implements Flow.Publisher<T> {
+
+    /** 订阅者缓冲区已满时的处理方式 */
+    public enum Overflow {
+        /** 丢弃新数据 */
+        DROP,
+        /** 只保留最新的一条数据 */
+        LATEST,
+        /** 不丢弃数据，按最慢的订阅者向上游请求数据（背压），不会阻塞线程 */
+        BLOCK
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final Inner[] EMPTY = new Inner[0];
+
+    private final Flow.Publisher<T> source;
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final int replaySize;
+    /** 非 BLOCK 模式下每接收 limit 条数据再向上游请求 limit 条 */
+    private final int limit;
+
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private volatile Flow.Subscription upstream;
+    @SuppressWarnings("unchecked")
+    private volatile Inner<T>[] subscribers = EMPTY;
+    /** 重放缓冲区，只在锁内访问 */
+    private final ArrayDeque<T> replay;
+    private final LongAdder dropped = new LongAdder();
+
+    /** 上游已发布的数量，只由上游线程在锁内与读取订阅者列表一起写入 */
+    private volatile long received;
+    /** 只在上游线程上访问 */
+    private int consumed;
+    /** 已向上游请求的总数，只在锁内访问，用于 BLOCK 模式 */
+    private long upstreamRequested;
+
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    public BroadcastPublisher(Flow.Publisher<T> source) {
+        this(source, 256, Overflow.BLOCK, 0);
+    }
+
+    /**
+     * @param source     上游
+     * @param bufferSize 每个订阅者的缓冲区大小
+     * @param overflow   缓冲区满时的处理方式
+     * @param replaySize 重放缓冲区大小，0 表示不重放
+     */
+    public BroadcastPublisher(Flow.Publisher<T> source, int bufferSize, Overflow overflow, int replaySize) {
+        if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be > 0");
+        if (replaySize < 0) throw new IllegalArgumentException("replaySize must be >= 0");
+        this.source = Objects.requireNonNull(source);
+        this.bufferSize = bufferSize;
+        this.overflow = Objects.requireNonNull(overflow);
+        this.replaySize = replaySize;
+        this.replay = replaySize == 0 ? null : new ArrayDeque<>(replaySize);
+        this.limit = bufferSize - (bufferSize >> 2);
+    }
+
+    /**
+     * 订阅上游，多次调用只有第一次生效
+     *
+     * @return true 如果本次调用订阅了上游
+     */
+    public boolean connect() {
+        if (!connected.compareAndSet(false, true)) return false;
+        source.subscribe(new Upstream());
+        return true;
+    }
+
+    /** @return 因缓冲区已满而丢弃的数据量，所有订阅者合计 */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Inner<T> inner = new Inner<>(this, subscriber);
+        synchronized (this) {
+            if (replay != null) inner.replay.addAll(replay);
+            inner.joinedAt = received;
+            Inner<T>[] current = subscribers;
+            Inner<T>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = inner;
+            subscribers = updated;
+        }
+        //onSubscribe 返回前发布循环被占用，不会向订阅者发送其他信号
+        subscriber.onSubscribe(inner);
+        replenish();
+        inner.drainLoop();
+    }
+
+    private synchronized void remove(Inner<T> inner) {
+        Inner<T>[] current = subscribers;
+        int index = Arrays.asList(current).indexOf(inner);
+        if (index < 0) return;
+        @SuppressWarnings("unchecked")
+        Inner<T>[] updated = new Inner[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        subscribers = updated;
+    }
+
+    /** 按最慢的订阅者计算可以向上游请求的数量，只用于 BLOCK 模式 */
+    private void replenish() {
+        Flow.Subscription upstream = this.upstream;
+        if (overflow != Overflow.BLOCK || upstream == null) return;
+        long n;
+        synchronized (this) {
+            Inner<T>[] current = subscribers;
+            if (current.length == 0) return;
+            long limit = Long.MAX_VALUE;
+            for (Inner<T> inner : current) limit = Math.min(limit, inner.joinedAt + inner.consumed + bufferSize);
+            n = limit - upstreamRequested;
+            if (n <= 0) return;
+            upstreamRequested = limit;
+        }
+        //在锁外请求，上游可能在 request 中同步发布数据
+        upstream.request(n);
+    }
+
+    private class Upstream implements Flow.Subscriber<T> {
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            if (overflow == Overflow.BLOCK) replenish();
+            else subscription.request(bufferSize);
+        }
+
+        public void onNext(T item) {
+            Inner<T>[] current;
+            //与订阅者加入互斥，保证每条数据恰好通过重放或缓冲区到达一次，且 joinedAt 与订阅者实际错过的数据一致，背压窗口不会偏移
+            synchronized (BroadcastPublisher.this) {
+                if (replay != null) {
+                    if (replay.size() == replaySize) replay.poll();
+                    replay.add(item);
+                }
+                current = subscribers;
+                received = received + 1;
+            }
+            for (Inner<T> inner : current) inner.offer(item);
+            if (overflow != Overflow.BLOCK && ++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+        }
+
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminate();
+        }
+
+        public void onComplete() {
+            terminate();
+        }
+
+        private void terminate() {
+            done = true;
+            for (Inner<T> inner : subscribers) inner.drain();
+        }
+    }
+
+    /** 订阅者的订阅，自身即未满足的请求数量 */
+    private static final class Inner<T> extends AtomicLong implements Flow.Subscription {
+        private final BroadcastPublisher<T> parent;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final SpscArrayQueue<T> queue;
+        /** 加入时的重放数据，只在发布循环中读取 */
+        private final ArrayDeque<T> replay = new ArrayDeque<>();
+        /** LATEST 模式下缓冲区已满时保存最新的数据 */
+        private final AtomicReference<T> latest = new AtomicReference<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        /** 加入时上游已发布的数量 */
+        private long joinedAt;
+        /** 已发布给订阅者的数量，不包括重放数据 */
+        private volatile long consumed;
+        private volatile boolean cancelled;
+
+        private Inner(BroadcastPublisher<T> parent, Flow.Subscriber<? super T> subscriber) {
+            this.parent = parent;
+            this.subscriber = subscriber;
+            this.queue = new SpscArrayQueue<>(parent.bufferSize);
+            this.wip.set(1);
+        }
+
+        /** 上游线程调用 */
+        private void offer(T item) {
+            if (cancelled) return;
+            if (parent.overflow == Overflow.LATEST) {
+                //已有最新数据时只能替换，保证顺序
+                if (latest.get() != null || !queue.offer(item)) {
+                    if (latest.getAndSet(item) != null) parent.dropped.increment();
+                }
+            } else if (!queue.offer(item)) {
+                parent.dropped.increment();
+            }
+            drain();
+        }
+
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancel();
+                subscriber.onError(exception);
+                return;
+            }
+            Subscriptions.addCap(this, n);
+            drain();
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            parent.remove(this);
+            parent.replenish();
+        }
+
+        private T poll() {
+            T item = replay.poll();
+            if (item != null) return item;
+            item = queue.poll();
+            if (item != null) {
+                consumed++;
+                return item;
+            }
+            return latest.getAndSet(null);
+        }
+
+        private boolean isEmpty() {
+            return replay.isEmpty() && queue.isEmpty() && latest.get() == null;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) drainLoop();
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (; ; ) {
+                long requested = get(), emitted = 0;
+                long consumedBefore = consumed;
+                while (emitted != requested) {
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                    boolean done = parent.done;
+                    T item = poll();
+                    if (item == null) {
+                        if (done) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    subscriber.onNext(item);
+                    emitted++;
+                }
+                if (emitted == requested) {
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                    if (parent.done && isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+                if (emitted != 0) Subscriptions.produced(this, emitted);
+                if (consumed != consumedBefore) parent.replenish();
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) break;
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            parent.remove(this);
+            Throwable error = parent.error;
+            if (error == null) subscriber.onComplete();
+            else subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Worker;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * {@link Flow.Publisher} 的操作符
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 22:20
+ **/
+public abstract class Flows {
+
+    /**
+     * 在 {@link ForkJoinPool#commonPool()} 上并行转换，按上游顺序发布结果
+     *
+     * @see #parallelMap(Flow.Publisher, int, int, Function, boolean, Executor)
+     */
+    public static <T, R> Flow.Publisher<R> parallelMap(Flow.Publisher<T> source, int parallelism, int prefetch,
+                                                        Function<? super T, ? extends R> mapper) {
+        return parallelMap(source, parallelism, prefetch, mapper, true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行转换。
+     * <p>
+     * 最多 parallelism 个工作任务同时从待处理队列中取数据执行转换，空闲的工作任务会取走其他数据，不与某条数据绑定；
+     * 已接收未发布的数据不超过 prefetch 条，下游每消费 75% 再向上游请求，因此下游的背压会传递到上游。
+     * 有序模式下结果按序号放入重排缓冲区，按上游顺序发布；无序模式下结果完成即发布，吞吐更高。
+     *
+     * @param source      上游
+     * @param parallelism 最大并行数
+     * @param prefetch    已接收未发布的最大数据量
+     * @param mapper      转换函数，不能返回 null
+     * @param ordered     是否按上游顺序发布
+     * @param executor    执行转换的线程池
+     * @return 转换后的发布者
+     */
+    public static <T, R> Flow.Publisher<R> parallelMap(Flow.Publisher<T> source, int parallelism, int prefetch,
+                                                        Function<? super T, ? extends R> mapper,
+                                                        boolean ordered, Executor executor) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be > 0");
+        if (prefetch < 1) throw new IllegalArgumentException("prefetch must be > 0");
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(executor);
+        return subscriber -> source.subscribe(new ParallelMapSubscriber<>(subscriber, parallelism, prefetch, mapper, ordered, executor));
+    }
+
+    /**
+     * 在调度器上向下游发布数据，上游线程只负责将数据放入队列
+     *
+     * @param source    上游
+     * @param scheduler 发布数据的调度器，每个订阅使用一个工作者
+     * @param prefetch  队列大小，即向上游预取的数量
+     * @return 切换发布线程后的发布者
+     */
+    public static <T> Flow.Publisher<T> publishOn(Flow.Publisher<T> source, Scheduler scheduler, int prefetch) {
+        if (prefetch < 1) throw new IllegalArgumentException("prefetch must be > 0");
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(scheduler);
+        return subscriber -> source.subscribe(new PublishOnSubscriber<>(subscriber, scheduler.createWorker(), prefetch));
+    }
+
+    /**
+     * 在调度器上订阅上游并请求数据，同步发布数据的上游因此在调度器上发布
+     *
+     * @param source    上游
+     * @param scheduler 订阅上游的调度器，每个订阅使用一个工作者
+     * @return 切换订阅线程后的发布者
+     */
+    public static <T> Flow.Publisher<T> subscribeOn(Flow.Publisher<T> source, Scheduler scheduler) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(scheduler);
+        return subscriber -> {
+            Worker worker = scheduler.createWorker();
+            SubscribeOnSubscriber<T> subscribeOn = new SubscribeOnSubscriber<>(subscriber, worker);
+            subscriber.onSubscribe(subscribeOn);
+            worker.schedule(() -> source.subscribe(subscribeOn));
+        };
+    }
+}
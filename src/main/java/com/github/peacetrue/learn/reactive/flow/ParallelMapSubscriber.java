@@ -0,0 +1,239 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 并行转换的订阅者，同时作为下游的订阅，自身即下游未满足的请求数量。
+ * <p>
+ * 上游线程为数据编号并放入待处理队列，工作任务并行转换；
+ * 有序模式下结果按编号放入环形的重排缓冲区，发布循环只发布下一个编号的结果；
+ * 无序模式下结果放入完成队列，发布循环按完成顺序发布。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 22:20
+ * @see Flows#parallelMap(Flow.Publisher, int, int, Function, boolean, Executor)
+ **/
+final class ParallelMapSubscriber<T, R> extends AtomicLong implements Flow.Subscriber<T>, Flow.Subscription {
+
+    private final Flow.Subscriber<? super R> downstream;
+    private final int parallelism;
+    private final int prefetch;
+    /** 每发布 limit 条数据向上游请求 limit 条 */
+    private final int limit;
+    private final Function<? super T, ? extends R> mapper;
+    private final Executor executor;
+
+    private final Queue<Indexed<T>> pending = new ConcurrentLinkedQueue<>();
+    /** 有序模式的重排缓冲区，下标为编号取模 */
+    private final AtomicReferenceArray<R> reorder;
+    private final int mask;
+    /** 无序模式的完成队列 */
+    private final Queue<R> completed;
+
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private Flow.Subscription upstream;
+    /** 已接收的数量，只由上游线程写入 */
+    private volatile long received;
+    /** 已发布的数量和待补充的请求数量，只在发布循环中访问 */
+    private long emitted;
+    private int consumed;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+
+    ParallelMapSubscriber(Flow.Subscriber<? super R> downstream, int parallelism, int prefetch,
+                          Function<? super T, ? extends R> mapper, boolean ordered, Executor executor) {
+        this.downstream = downstream;
+        this.parallelism = parallelism;
+        this.prefetch = prefetch;
+        this.limit = Math.max(1, prefetch - (prefetch >> 2));
+        this.mapper = mapper;
+        this.executor = executor;
+        int capacity = 1 << (32 - Integer.numberOfLeadingZeros(prefetch - 1));
+        this.reorder = ordered ? new AtomicReferenceArray<>(capacity) : null;
+        this.mask = capacity - 1;
+        this.completed = ordered ? null : new ConcurrentLinkedQueue<>();
+    }
+
+    //-----------------Subscriber<T>------------------------
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        downstream.onSubscribe(this);
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done || cancelled) return;
+        long index = received;
+        pending.offer(new Indexed<>(index, item));
+        received = index + 1;
+        tryStartWorker();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) return;
+        error.compareAndSet(null, throwable);
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        done = true;
+        drain();
+    }
+
+    //-----------------Subscription------------------------
+    @Override
+    public void request(long n) {
+        IllegalArgumentException exception = Subscriptions.validate(n);
+        if (exception != null) {
+            fail(exception);
+            return;
+        }
+        Subscriptions.addCap(this, n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        upstream.cancel();
+        if (wip.getAndIncrement() == 0) clear();
+    }
+
+    //-----------------工作任务------------------------
+    private void tryStartWorker() {
+        for (; ; ) {
+            int current = workers.get();
+            if (current >= parallelism) return;
+            if (workers.compareAndSet(current, current + 1)) break;
+        }
+        try {
+            executor.execute(this::work);
+        } catch (RejectedExecutionException exception) {
+            workers.decrementAndGet();
+            fail(exception);
+        }
+    }
+
+    /** 取待处理数据直到队列为空，退出后若又有新数据则重新启动 */
+    private void work() {
+        Indexed<T> indexed;
+        while ((indexed = pending.poll()) != null) {
+            if (cancelled || error.get() != null) {
+                pending.clear();
+                break;
+            }
+            R result;
+            try {
+                result = mapper.apply(indexed.item);
+                if (result == null) throw new NullPointerException("mapper returned null for item " + indexed.item);
+            } catch (Throwable exception) {
+                fail(exception);
+                break;
+            }
+            if (reorder != null) reorder.set((int) (indexed.index & mask), result);
+            else completed.offer(result);
+            drain();
+        }
+        workers.decrementAndGet();
+        if (!pending.isEmpty()) tryStartWorker();
+    }
+
+    /** 转换失败时立即取消上游并通知下游 */
+    private void fail(Throwable throwable) {
+        if (!error.compareAndSet(null, throwable)) return;
+        upstream.cancel();
+        done = true;
+        drain();
+    }
+
+    //-----------------发布循环------------------------
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        int missed = 1;
+        long emitted = this.emitted;
+        int consumed = this.consumed;
+        for (; ; ) {
+            long requested = get(), count = 0;
+            for (; ; ) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                Throwable throwable = error.get();
+                if (throwable != null) {
+                    cancelled = true;
+                    clear();
+                    downstream.onError(throwable);
+                    return;
+                }
+                boolean done = this.done;
+                if (done && emitted == received) {
+                    cancelled = true;
+                    downstream.onComplete();
+                    return;
+                }
+                if (count == requested) break;
+                R result = poll(emitted);
+                if (result == null) break;
+                downstream.onNext(result);
+                emitted++;
+                count++;
+                if (++consumed == limit) {
+                    consumed = 0;
+                    upstream.request(limit);
+                }
+            }
+            if (count != 0) Subscriptions.produced(this, count);
+            this.emitted = emitted;
+            this.consumed = consumed;
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) return;
+        }
+    }
+
+    private R poll(long index) {
+        if (reorder == null) return completed.poll();
+        int slot = (int) (index & mask);
+        R result = reorder.get(slot);
+        if (result != null) reorder.set(slot, null);
+        return result;
+    }
+
+    private void clear() {
+        pending.clear();
+        if (completed != null) completed.clear();
+    }
+
+    private static final class Indexed<T> {
+        private final long index;
+        private final T item;
+
+        private Indexed(long index, T item) {
+            this.index = index;
+            this.item = item;
+        }
+    }
+}
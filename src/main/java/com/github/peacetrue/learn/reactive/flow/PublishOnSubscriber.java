@@ -0,0 +1,173 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import com.github.peacetrue.learn.reactive.scheduler.Worker;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 切换发布线程的订阅者，同时作为下游的订阅，自身即下游未满足的请求数量。
+ * <p>
+ * 上游线程将数据放入单生产者单消费者的环形队列，发布循环在工作者上取出数据发布给下游，
+ * 两个线程只通过队列交换数据，可以同时运行；每发布 75% 的预取数量再向上游请求，减少请求次数。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 23:00
+ * @see Flows#publishOn(Flow.Publisher, com.github.peacetrue.learn.reactive.scheduler.Scheduler, int)
+ **/
+final class PublishOnSubscriber<T> extends AtomicLong implements Flow.Subscriber<T>, Flow.Subscription, Runnable {
+
+    private final Flow.Subscriber<? super T> downstream;
+    private final Worker worker;
+    private final int prefetch;
+    /** 每发布 limit 条数据向上游请求 limit 条 */
+    private final int limit;
+    private final SpscArrayQueue<T> queue;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private Flow.Subscription upstream;
+    /** 待补充的请求数量，只在发布循环中访问 */
+    private int consumed;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+
+    PublishOnSubscriber(Flow.Subscriber<? super T> downstream, Worker worker, int prefetch) {
+        this.downstream = downstream;
+        this.worker = worker;
+        this.prefetch = prefetch;
+        this.limit = Math.max(1, prefetch - (prefetch >> 2));
+        this.queue = new SpscArrayQueue<>(prefetch);
+    }
+
+    //-----------------Subscriber<T>------------------------
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        downstream.onSubscribe(this);
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (done) return;
+        if (!queue.offer(item)) {
+            //上游发布的数据超过了请求数量
+            upstream.cancel();
+            onError(new IllegalStateException("queue is full, upstream ignores backpressure"));
+            return;
+        }
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) return;
+        error = throwable;
+        done = true;
+        schedule();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) return;
+        done = true;
+        schedule();
+    }
+
+    //-----------------Subscription------------------------
+    @Override
+    public void request(long n) {
+        IllegalArgumentException exception = Subscriptions.validate(n);
+        if (exception != null) {
+            upstream.cancel();
+            onError(exception);
+            return;
+        }
+        Subscriptions.addCap(this, n);
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        upstream.cancel();
+        worker.dispose();
+        if (wip.getAndIncrement() == 0) queue.clear();
+    }
+
+    //-----------------发布循环------------------------
+    private void schedule() {
+        if (wip.getAndIncrement() != 0) return;
+        try {
+            worker.schedule(this);
+        } catch (RejectedExecutionException exception) {
+            cancelled = true;
+            upstream.cancel();
+            queue.clear();
+            downstream.onError(exception);
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        int consumed = this.consumed;
+        for (; ; ) {
+            long requested = get(), emitted = 0;
+            for (; ; ) {
+                if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+                boolean done = this.done;
+                //出错时不再发布队列中剩余的数据
+                if (done && error != null) {
+                    queue.clear();
+                    terminate();
+                    return;
+                }
+                if (emitted == requested) {
+                    if (done && queue.isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                    break;
+                }
+                T item = queue.poll();
+                if (item == null) {
+                    if (done) {
+                        terminate();
+                        return;
+                    }
+                    break;
+                }
+                downstream.onNext(item);
+                emitted++;
+                if (++consumed == limit) {
+                    consumed = 0;
+                    upstream.request(limit);
+                }
+            }
+            if (emitted != 0) Subscriptions.produced(this, emitted);
+            this.consumed = consumed;
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) return;
+        }
+    }
+
+    private void terminate() {
+        cancelled = true;
+        worker.dispose();
+        Throwable error = this.error;
+        if (error == null) downstream.onComplete();
+        else downstream.onError(error);
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 单生产者单消费者的有界环形队列。
+ * <p>
+ * 生产者只写 producerIndex，消费者只写 consumerIndex，二者由填充字段隔开，避免伪共享；
+ * 是否有空位（数据）通过槽位是否为 null 判断，生产者和消费者互不读取对方的下标。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 17:30
+ **/
+public class SpscArrayQueue<E> extends SpscArrayQueueConsumerIndex {
+
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Object[] buffer;
+    private final int mask;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    public SpscArrayQueue(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be > 0");
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /** 只能由生产者调用 */
+    public boolean offer(E element) {
+        if (element == null) throw new NullPointerException();
+        long index = producerIndex;
+        int offset = (int) index & mask;
+        if (ELEMENT.getAcquire(buffer, offset) != null) return false;
+        ELEMENT.setRelease(buffer, offset, element);
+        PRODUCER_INDEX.setRelease(this, index + 1);
+        return true;
+    }
+
+    /** 只能由消费者调用 */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long index = consumerIndex;
+        int offset = (int) index & mask;
+        Object element = ELEMENT.getAcquire(buffer, offset);
+        if (element == null) return null;
+        ELEMENT.setRelease(buffer, offset, null);
+        CONSUMER_INDEX.setRelease(this, index + 1);
+        return (E) element;
+    }
+
+    /** 只能由消费者调用 */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (E) ELEMENT.getAcquire(buffer, (int) consumerIndex & mask);
+    }
+
+    /** 只能由消费者调用 */
+    public void clear() {
+        while (poll() != null) {
+            //丢弃
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** @return 近似的数据量 */
+    public int size() {
+        long consumer = (long) CONSUMER_INDEX.getVolatile(this);
+        long producer = (long) PRODUCER_INDEX.getVolatile(this);
+        return (int) Math.max(0, Math.min(producer - consumer, buffer.length));
+    }
+}
+
+/** 以下类通过继承控制字段布局，在两个下标前后各填充一个缓存行 */
+abstract class SpscArrayQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscArrayQueueProducerIndex extends SpscArrayQueuePad0 {
+    static final VarHandle PRODUCER_INDEX;
+
+    static {
+        try {
+            PRODUCER_INDEX = MethodHandles.lookup().findVarHandle(SpscArrayQueueProducerIndex.class, "producerIndex", long.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    long producerIndex;
+}
+
+abstract class SpscArrayQueuePad1 extends SpscArrayQueueProducerIndex {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p30, p31, p32, p33, p34, p35, p36, p37;
+}
+
+abstract class SpscArrayQueueConsumerIndex extends SpscArrayQueuePad1 {
+    static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup().findVarHandle(SpscArrayQueueConsumerIndex.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    long consumerIndex;
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+    long p50, p51, p52, p53, p54, p55, p56, p57;
+}
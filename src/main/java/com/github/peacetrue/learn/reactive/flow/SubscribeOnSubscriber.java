@@ -0,0 +1,94 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import com.github.peacetrue.learn.reactive.scheduler.Worker;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 切换订阅线程的订阅者，同时作为下游的订阅，自身即上游到达前累计的请求数量。
+ * <p>
+ * 订阅上游和向上游请求都在工作者上执行，同步发布数据的上游因此在工作者线程上发布；
+ * 工作者串行执行任务，请求的顺序保持不变。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 23:00
+ * @see Flows#subscribeOn(Flow.Publisher, com.github.peacetrue.learn.reactive.scheduler.Scheduler)
+ **/
+final class SubscribeOnSubscriber<T> extends AtomicLong implements Flow.Subscriber<T>, Flow.Subscription {
+
+    private final Flow.Subscriber<? super T> downstream;
+    private final Worker worker;
+    private volatile Flow.Subscription upstream;
+    private volatile boolean cancelled;
+
+    SubscribeOnSubscriber(Flow.Subscriber<? super T> downstream, Worker worker) {
+        this.downstream = downstream;
+        this.worker = worker;
+    }
+
+    //-----------------Subscriber<T>------------------------
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (cancelled || upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        long requested = getAndSet(0);
+        if (requested != 0) requestUpstream(subscription, requested);
+    }
+
+    @Override
+    public void onNext(T item) {
+        downstream.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        worker.dispose();
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        worker.dispose();
+        downstream.onComplete();
+    }
+
+    //-----------------Subscription------------------------
+    @Override
+    public void request(long n) {
+        IllegalArgumentException exception = Subscriptions.validate(n);
+        if (exception != null) {
+            cancel();
+            downstream.onError(exception);
+            return;
+        }
+        Flow.Subscription upstream = this.upstream;
+        if (upstream != null) {
+            requestUpstream(upstream, n);
+            return;
+        }
+        //上游尚未到达，先累计，到达后由 onSubscribe 或此处再次检查后请求
+        Subscriptions.addCap(this, n);
+        upstream = this.upstream;
+        if (upstream != null) {
+            long requested = getAndSet(0);
+            if (requested != 0) requestUpstream(upstream, requested);
+        }
+    }
+
+    private void requestUpstream(Flow.Subscription upstream, long n) {
+        worker.schedule(() -> upstream.request(n));
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        Flow.Subscription upstream = this.upstream;
+        if (upstream != null) upstream.cancel();
+        worker.dispose();
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 订阅相关的工具方法，主要用于请求数量的累计
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 14:30
+ **/
+public abstract class Subscriptions {
+
+    /** 什么也不做的订阅，用于立即结束的发布者 */
+    public static final Flow.Subscription EMPTY = new Flow.Subscription() {
+        public void request(long n) {
+        }
+
+        public void cancel() {
+        }
+    };
+
+    /**
+     * 两个请求数量相加，溢出时取 {@link Long#MAX_VALUE}，即不限数量
+     *
+     * @return 相加后的请求数量
+     */
+    public static long addCap(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * 累加请求数量，已达到 {@link Long#MAX_VALUE} 时不再变化
+     *
+     * @param requested 已请求数量
+     * @param n         新增请求数量
+     * @return 累加前的请求数量，为 0 时说明调用者需要负责发布数据
+     */
+    public static long addCap(AtomicLong requested, long n) {
+        for (; ; ) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) return Long.MAX_VALUE;
+            if (requested.compareAndSet(current, addCap(current, n))) return current;
+        }
+    }
+
+    /**
+     * 扣减已发布数量，请求数量为 {@link Long#MAX_VALUE} 时不扣减
+     *
+     * @return 扣减后的请求数量
+     */
+    public static long produced(AtomicLong requested, long n) {
+        for (; ; ) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) return Long.MAX_VALUE;
+            long update = current - n;
+            if (update < 0) throw new IllegalStateException("more produced than requested: " + update);
+            if (requested.compareAndSet(current, update)) return update;
+        }
+    }
+
+    /**
+     * 校验请求数量，参考反应式流规范 3.9
+     *
+     * @return 非法的请求数量对应的异常，合法时返回 null
+     */
+    public static IllegalArgumentException validate(long n) {
+        return n > 0 ? null : new IllegalArgumentException("request count must be > 0, but " + n);
+    }
+}
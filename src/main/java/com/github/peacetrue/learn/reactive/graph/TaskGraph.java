@@ -0,0 +1,321 @@
+package com.github.peacetrue.learn.reactive.graph;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * 声明式的任务图。
+ * <p>
+ * 节点通过名称声明依赖，执行时依赖全部完成的节点进入就绪队列，
+ * 就绪节点按最长剩余路径（自身及后续节点预估耗时之和的最大值）优先执行，
+ * 并发数不超过 parallelism，避免关键路径上的节点排在调度器队列的后面。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 19:40
+ **/
+@Slf4j
+public class TaskGraph {
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * 添加节点，预估耗时未知时视为相同，按剩余节点数排序
+     *
+     * @see #node(String, Duration, Function, String...)
+     */
+    public TaskGraph node(String name, Function<Inputs, ?> action, String... dependencies) {
+        return node(name, Duration.ofNanos(1), action, dependencies);
+    }
+
+    /**
+     * 添加节点
+     *
+     * @param name         节点名称，不能重复
+     * @param cost         预估耗时，用于计算优先级
+     * @param action       节点操作，参数为依赖节点的结果
+     * @param dependencies 依赖的节点名称
+     * @return 当前任务图
+     */
+    public TaskGraph node(String name, Duration cost, Function<Inputs, ?> action, String... dependencies) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(action);
+        if (cost.isNegative()) throw new IllegalArgumentException("cost of node '" + name + "' must not be negative");
+        if (nodes.containsKey(name)) throw new IllegalArgumentException("duplicate node '" + name + "'");
+        nodes.put(name, new Node(name, cost.toNanos(), action, Arrays.asList(dependencies)));
+        return this;
+    }
+
+    public PromiseImpl<TaskGraphResult> execute() {
+        return execute(Schedulers.defaults(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 执行任务图，任一节点失败时不再执行新的节点，并以该异常失败
+     *
+     * @param scheduler   执行节点的调度器
+     * @param parallelism 最大并发数
+     * @return 执行结果
+     */
+    public PromiseImpl<TaskGraphResult> execute(Scheduler scheduler, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be > 0");
+        PromiseImpl<TaskGraphResult> promise = new PromiseImpl<>();
+        new Execution(new Plan(nodes), scheduler, parallelism, promise).start();
+        return promise;
+    }
+
+    /** 节点操作的参数，只能读取已声明依赖的结果 */
+    public static class Inputs {
+        private final Plan plan;
+        private final int index;
+        private final Object[] results;
+
+        private Inputs(Plan plan, int index, Object[] results) {
+            this.plan = plan;
+            this.index = index;
+            this.results = results;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name) {
+            Integer dependency = plan.indexes.get(name);
+            if (dependency != null) {
+                for (int declared : plan.dependencies[index]) {
+                    if (declared == dependency) return (T) results[dependency];
+                }
+            }
+            throw new IllegalArgumentException("node '" + plan.names[index] + "' does not depend on '" + name + "'");
+        }
+    }
+
+    private static class Node {
+        private final String name;
+        private final long cost;
+        private final Function<Inputs, ?> action;
+        private final List<String> dependencies;
+
+        private Node(String name, long cost, Function<Inputs, ?> action, List<String> dependencies) {
+            this.name = name;
+            this.cost = cost;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /** 以数组下标表示的执行计划，构建时校验依赖并计算优先级 */
+    private static class Plan {
+        private final String[] names;
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+        private final List<Function<Inputs, ?>> actions = new ArrayList<>();
+        private final int[][] dependencies;
+        private final int[][] successors;
+        /** 最长剩余路径 */
+        private final long[] ranks;
+        private final long criticalPath;
+
+        private Plan(Map<String, Node> nodes) {
+            int size = nodes.size();
+            this.names = new String[size];
+            this.dependencies = new int[size][];
+            int index = 0;
+            for (Node node : nodes.values()) {
+                names[index] = node.name;
+                indexes.put(node.name, index++);
+                actions.add(node.action);
+            }
+
+            int[] successorCounts = new int[size];
+            index = 0;
+            for (Node node : nodes.values()) {
+                int[] nodeDependencies = new int[node.dependencies.size()];
+                for (int i = 0; i < nodeDependencies.length; i++) {
+                    Integer dependency = indexes.get(node.dependencies.get(i));
+                    if (dependency == null) {
+                        throw new IllegalArgumentException("node '" + node.name + "' depends on unknown node '" + node.dependencies.get(i) + "'");
+                    }
+                    nodeDependencies[i] = dependency;
+                    successorCounts[dependency]++;
+                }
+                dependencies[index++] = nodeDependencies;
+            }
+            this.successors = new int[size][];
+            for (int i = 0; i < size; i++) successors[i] = new int[successorCounts[i]];
+            for (int i = 0; i < size; i++) {
+                for (int dependency : dependencies[i]) successors[dependency][--successorCounts[dependency]] = i;
+            }
+
+            //拓扑排序，逆序计算最长剩余路径
+            int[] order = topologicalOrder();
+            long[] costs = nodes.values().stream().mapToLong(node -> node.cost).toArray();
+            this.ranks = new long[size];
+            long criticalPath = 0;
+            for (int i = size - 1; i >= 0; i--) {
+                int node = order[i];
+                long longest = 0;
+                for (int successor : successors[node]) longest = Math.max(longest, ranks[successor]);
+                ranks[node] = costs[node] + longest;
+                criticalPath = Math.max(criticalPath, ranks[node]);
+            }
+            this.criticalPath = criticalPath;
+        }
+
+        private int[] topologicalOrder() {
+            int size = names.length;
+            int[] remaining = new int[size];
+            int[] order = new int[size];
+            int head = 0, tail = 0;
+            for (int i = 0; i < size; i++) {
+                remaining[i] = dependencies[i].length;
+                if (remaining[i] == 0) order[tail++] = i;
+            }
+            while (head < tail) {
+                for (int successor : successors[order[head++]]) {
+                    if (--remaining[successor] == 0) order[tail++] = successor;
+                }
+            }
+            if (tail < size) {
+                List<String> cycle = new ArrayList<>();
+                for (int i = 0; i < size; i++) if (remaining[i] > 0) cycle.add(names[i]);
+                throw new IllegalStateException("task graph contains a cycle among " + cycle);
+            }
+            return order;
+        }
+    }
+
+    /** 一次执行的状态，除结果数组外都在锁内访问，结果数组通过锁保证可见性 */
+    private static class Execution {
+        private final Plan plan;
+        private final Scheduler scheduler;
+        private final int parallelism;
+        private final PromiseImpl<TaskGraphResult> promise;
+        private final Object[] results;
+        private final int[] remaining;
+        private final PriorityQueue<Integer> ready;
+        private final List<String> order;
+        private int running, finished;
+        private boolean failed;
+        private long start, end;
+
+        private Execution(Plan plan, Scheduler scheduler, int parallelism, PromiseImpl<TaskGraphResult> promise) {
+            this.plan = plan;
+            this.scheduler = scheduler;
+            this.parallelism = parallelism;
+            this.promise = promise;
+            int size = plan.names.length;
+            this.results = new Object[size];
+            this.remaining = new int[size];
+            this.order = new ArrayList<>(size);
+            this.ready = new PriorityQueue<>(Math.max(1, size), (left, right) -> {
+                int compare = Long.compare(plan.ranks[right], plan.ranks[left]);
+                return compare != 0 ? compare : Integer.compare(left, right);
+            });
+            for (int i = 0; i < size; i++) {
+                remaining[i] = plan.dependencies[i].length;
+                if (remaining[i] == 0) ready.add(i);
+            }
+        }
+
+        private void start() {
+            List<Integer> dispatched;
+            synchronized (this) {
+                start = end = System.nanoTime();
+                dispatched = dispatch();
+            }
+            if (results.length == 0) promise.onSuccess(result());
+            else schedule(dispatched);
+        }
+
+        /** 在锁内取出可以执行的节点 */
+        private List<Integer> dispatch() {
+            if (failed || promise.isCompleted()) return Collections.emptyList();
+            List<Integer> dispatched = new ArrayList<>(Math.min(ready.size(), parallelism - running));
+            while (running < parallelism && !ready.isEmpty()) {
+                int node = ready.poll();
+                running++;
+                order.add(plan.names[node]);
+                dispatched.add(node);
+            }
+            return dispatched;
+        }
+
+        private void schedule(List<Integer> dispatched) {
+            for (int node : dispatched) {
+                try {
+                    scheduler.schedule(() -> run(node));
+                } catch (RejectedExecutionException exception) {
+                    fail(node, exception);
+                }
+            }
+        }
+
+        private void run(int node) {
+            //已失败或已取消
+            if (promise.isCompleted()) {
+                synchronized (this) {
+                    running--;
+                }
+                return;
+            }
+            Object value;
+            try {
+                value = plan.actions.get(node).apply(new Inputs(plan, node, results));
+            } catch (Throwable exception) {
+                fail(node, exception);
+                return;
+            }
+            complete(node, value);
+        }
+
+        private void complete(int node, Object value) {
+            List<Integer> dispatched;
+            boolean done;
+            synchronized (this) {
+                results[node] = value;
+                running--;
+                finished++;
+                for (int successor : plan.successors[node]) {
+                    if (--remaining[successor] == 0) ready.add(successor);
+                }
+                dispatched = dispatch();
+                done = finished == results.length;
+                if (done) end = System.nanoTime();
+            }
+            if (done) promise.onSuccess(result());
+            else schedule(dispatched);
+        }
+
+        private void fail(int node, Throwable exception) {
+            synchronized (this) {
+                running--;
+                if (failed) return;
+                failed = true;
+            }
+            log.warn("task node '{}' failed", plan.names[node]);
+            promise.onError(new IllegalStateException("task node '" + plan.names[node] + "' failed", exception));
+        }
+
+        private synchronized TaskGraphResult result() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < results.length; i++) values.put(plan.names[i], results[i]);
+            return new TaskGraphResult(
+                    Collections.unmodifiableMap(values),
+                    Collections.unmodifiableList(order),
+                    Duration.ofNanos(end - start),
+                    Duration.ofNanos(plan.criticalPath)
+            );
+        }
+    }
+}
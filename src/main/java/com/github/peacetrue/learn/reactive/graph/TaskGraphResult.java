@@ -0,0 +1,40 @@
+package com.github.peacetrue.learn.reactive.graph;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务图的执行结果
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 19:40
+ **/
+@Getter
+@ToString
+public class TaskGraphResult {
+
+    /** 节点名称到结果的映射 */
+    private final Map<String, Object> values;
+    /** 节点按开始执行的先后排列 */
+    private final List<String> order;
+    /** 实际的总耗时，从第一个节点开始到最后一个节点结束 */
+    private final Duration makespan;
+    /** 按节点预估耗时计算的关键路径长度，即总耗时的下限 */
+    private final Duration criticalPath;
+
+    TaskGraphResult(Map<String, Object> values, List<String> order, Duration makespan, Duration criticalPath) {
+        this.values = values;
+        this.order = order;
+        this.makespan = makespan;
+        this.criticalPath = criticalPath;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name) {
+        return (T) values.get(name);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+/**
+ * 自适应并发限制的基类，在锁内更新估计值，并限制在 [minLimit, maxLimit] 之间
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+abstract class AbstractLimit implements Limit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    /** 带小数的估计值，只在锁内访问 */
+    private double estimate;
+    private volatile int limit;
+
+    AbstractLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1) throw new IllegalArgumentException("minLimit must be > 0");
+        if (maxLimit < minLimit) throw new IllegalArgumentException("maxLimit must be >= minLimit");
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be in [minLimit, maxLimit]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimate = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (rttNanos <= 0) return;
+        double updated = update(estimate, rttNanos, inflight, dropped);
+        estimate = Math.max(minLimit, Math.min(maxLimit, updated));
+        limit = (int) estimate;
+    }
+
+    /**
+     * 计算新的估计值，在锁内调用
+     *
+     * @param estimate 当前估计值
+     * @return 新的估计值，不需要调整时返回 estimate
+     */
+    abstract double update(double estimate, long rttNanos, int inflight, boolean dropped);
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{limit=" + limit + ", minLimit=" + minLimit + ", maxLimit=" + maxLimit + '}';
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.timer.HashedWheelTimer;
+import com.github.peacetrue.learn.reactive.timer.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发限流器，正在执行的调用数不超过 {@link Limit} 给出的限制。
+ * <p>
+ * 许可归还时以获取到归还的耗时作为样本更新限制，因此下游变慢时允许的并发数随之下降。
+ * 超出限制的调用进入有界队列，按到达顺序分配归还的许可，等待超过 maxWait 时失败；
+ * 队列大小为 0 时直接拒绝。等待由共享的时间轮定时器计时，不占用线程。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public class ConcurrencyLimiter implements Limiter {
+
+    private final Limit limit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final AtomicInteger inflight = new AtomicInteger();
+    /** 等待许可的调用，只在锁内访问 */
+    private final ArrayDeque<PromiseImpl<Permit>> waiters = new ArrayDeque<>();
+    /** 队列是否非空，用于无锁判断是否需要排队 */
+    private volatile boolean waiting;
+    private final LongAdder rejected = new LongAdder();
+
+    /** 不排队，超出限制时直接拒绝 */
+    public ConcurrencyLimiter(Limit limit) {
+        this(limit, 0, Duration.ZERO);
+    }
+
+    /**
+     * @param limit    并发限制的算法
+     * @param maxQueue 最多排队的调用数
+     * @param maxWait  最长等待时间
+     */
+    public ConcurrencyLimiter(Limit limit, int maxQueue, Duration maxWait) {
+        if (maxQueue < 0) throw new IllegalArgumentException("maxQueue must be >= 0");
+        if (maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
+        this.limit = Objects.requireNonNull(limit);
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+    }
+
+    /** 有调用在排队时不插队 */
+    @Override
+    public Permit tryAcquire() {
+        return waiting ? null : increment();
+    }
+
+    private Permit increment() {
+        for (; ; ) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) return null;
+            if (inflight.compareAndSet(current, current + 1)) return new ConcurrencyPermit(current + 1);
+        }
+    }
+
+    @Override
+    public PromiseImpl<Permit> acquire() {
+        PromiseImpl<Permit> promise = new PromiseImpl<>();
+        Permit permit = tryAcquire();
+        if (permit != null) {
+            promise.onSuccess(permit);
+            return promise;
+        }
+        synchronized (waiters) {
+            if (waiters.size() >= maxQueue) {
+                rejected.increment();
+                promise.onError(new RejectedExecutionException("concurrency limit " + limit.getLimit() + " exceeded"));
+                return promise;
+            }
+            waiters.add(promise);
+            waiting = true;
+        }
+        Timeout timeout = HashedWheelTimer.shared().newTimeout(() -> expire(promise), maxWait);
+        promise.whenComplete(timeout::cancel);
+        //入队前可能已有许可归还
+        drain();
+        return promise;
+    }
+
+    private void expire(PromiseImpl<Permit> promise) {
+        synchronized (waiters) {
+            if (!waiters.remove(promise)) return;
+            waiting = !waiters.isEmpty();
+        }
+        rejected.increment();
+        promise.onError(new RejectedExecutionException("wait for permit timeout after " + maxWait));
+    }
+
+    /** 将空闲的许可按顺序分配给排队的调用 */
+    private void drain() {
+        while (waiting) {
+            PromiseImpl<Permit> promise;
+            Permit permit;
+            synchronized (waiters) {
+                promise = waiters.peek();
+                if (promise == null) return;
+                permit = increment();
+                if (permit == null) return;
+                waiters.poll();
+                waiting = !waiters.isEmpty();
+            }
+            //排队期间已取消
+            promise.onSuccess(permit);
+            if (promise.getValue() != permit) permit.ignore();
+        }
+    }
+
+    /** @return 正在执行的调用数 */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /** @return 当前允许的并发数 */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /** @return 因队列已满或等待超时而拒绝的调用数 */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private final class ConcurrencyPermit extends AtomicBoolean implements Permit {
+        private final long start = System.nanoTime();
+        private final int inflightAtAcquire;
+
+        private ConcurrencyPermit(int inflightAtAcquire) {
+            this.inflightAtAcquire = inflightAtAcquire;
+        }
+
+        public void release() {
+            complete(false, true);
+        }
+
+        public void drop() {
+            complete(true, true);
+        }
+
+        public void ignore() {
+            complete(false, false);
+        }
+
+        private void complete(boolean dropped, boolean sample) {
+            if (!compareAndSet(false, true)) return;
+            if (sample) limit.onSample(System.nanoTime() - start, inflightAtAcquire, dropped);
+            inflight.decrementAndGet();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+/**
+ * 固定的并发限制，不随耗时调整
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public class FixedLimit implements Limit {
+
+    private final int limit;
+
+    public FixedLimit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be > 0");
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+    }
+
+    @Override
+    public String toString() {
+        return "FixedLimit{limit=" + limit + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+/**
+ * 基于耗时梯度的并发限制。
+ * <p>
+ * 以耗时的长期移动平均作为基准，梯度 = tolerance × 长期耗时 / 当前耗时，限制在 [0.5, 1] 之间；
+ * 新的限制为 limit × 梯度 + √limit，耗时稳定时按 √limit 增加，耗时上升时按梯度收缩，并做平滑处理。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public class GradientLimit extends AbstractLimit {
+
+    /** 当前耗时不超过长期耗时的 TOLERANCE 倍时视为没有排队 */
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    /** 长期耗时的指数移动平均系数，约等于最近 600 个样本的窗口 */
+    private static final double LONG_ALPHA = 2.0 / 601;
+
+    /** 只在锁内访问 */
+    private double longRtt;
+
+    public GradientLimit() {
+        this(20, 1, 1000);
+    }
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        super(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    double update(double estimate, long rttNanos, int inflight, boolean dropped) {
+        if (longRtt == 0) longRtt = rttNanos;
+        else longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+        //负载下降后长期耗时明显偏高，加快回落
+        if (longRtt > 2.0 * rttNanos) longRtt *= 0.95;
+
+        double target;
+        if (dropped) {
+            target = estimate * 0.5;
+        } else {
+            //并发未用满时不增加
+            if (inflight * 2 < estimate) return estimate;
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / rttNanos));
+            target = estimate * gradient + Math.sqrt(estimate);
+        }
+        return estimate * (1 - SMOOTHING) + target * SMOOTHING;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+/**
+ * 并发限制的算法，根据每次调用的往返耗时调整允许的并发数
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public interface Limit {
+
+    /** @return 当前允许的并发数 */
+    int getLimit();
+
+    /**
+     * 记录一次调用的结果
+     *
+     * @param rttNanos 往返耗时，单位纳秒
+     * @param inflight 获取许可时正在执行的调用数，包括本次调用
+     * @param dropped  是否因过载而失败
+     */
+    void onSample(long rttNanos, int inflight, boolean dropped);
+}
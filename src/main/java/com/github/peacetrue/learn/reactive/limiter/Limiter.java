@@ -0,0 +1,92 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+import com.github.peacetrue.learn.reactive.callback.CallbackHandler;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 限流器，调用前获取许可，调用结束后归还
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public interface Limiter {
+
+    /**
+     * 尝试立即获取许可，不排队
+     *
+     * @return 许可，超出限制时返回 null
+     */
+    Permit tryAcquire();
+
+    /**
+     * 获取许可，超出限制时排队等待，不阻塞线程
+     *
+     * @return 许可的承诺，队列已满或等待超时时以 {@link RejectedExecutionException} 失败
+     */
+    PromiseImpl<Permit> acquire();
+
+    /** 许可，只有第一次归还生效 */
+    interface Permit {
+
+        /** 调用成功，记录往返耗时 */
+        void release();
+
+        /** 调用因过载失败，例如超时或被拒绝，用于降低限制 */
+        void drop();
+
+        /** 调用因与负载无关的原因失败，只归还许可 */
+        void ignore();
+
+        /** 按调用结果归还 */
+        default void complete(Throwable exception) {
+            if (exception == null) release();
+            else if (exception instanceof TimeoutException || exception instanceof RejectedExecutionException) drop();
+            else ignore();
+        }
+    }
+
+    /**
+     * 获取许可后在调度器上执行任务，任务完成时归还许可
+     *
+     * @see PromiseImpl#invoke(Supplier, Scheduler)
+     */
+    static <T> PromiseImpl<T> invoke(Limiter limiter, Supplier<T> action, Scheduler scheduler) {
+        return limiter.acquire().thenCompose(permit -> PromiseImpl.invoke(action, scheduler)
+                .whenDone((value, exception) -> permit.complete(exception)));
+    }
+
+    /**
+     * 获取许可后在调度器上执行任务，任务完成时先归还许可再回调；未获取到许可时直接回调异常
+     *
+     * @see CallbackHandler#invoke(Supplier, CallbackHandler, Scheduler)
+     */
+    static <T> void invoke(Limiter limiter, Supplier<T> action, CallbackHandler<T> handler, Scheduler scheduler) {
+        limiter.acquire().whenDone((permit, exception) -> {
+            if (exception != null) {
+                handler.onError(exception);
+                handler.onComplete();
+                return;
+            }
+            CallbackHandler.invoke(action, new CallbackHandler<T>() {
+                public void onSuccess(T result) {
+                    permit.release();
+                    handler.onSuccess(result);
+                }
+
+                public void onError(Throwable exception) {
+                    permit.complete(exception);
+                    handler.onError(exception);
+                }
+
+                public void onComplete() {
+                    handler.onComplete();
+                }
+            }, scheduler);
+        });
+    }
+}
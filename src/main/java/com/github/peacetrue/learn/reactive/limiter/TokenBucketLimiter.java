@@ -0,0 +1,111 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.timer.HashedWheelTimer;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌桶限流器，限制调用的速率而不是并发数，不随耗时调整。
+ * <p>
+ * 令牌按固定速率生成，最多积累 burst 个，空闲后允许短时突发。
+ * 令牌不足时预约下一个令牌的生成时间，需要等待的时间不超过 maxWait 时由定时器到期后授予许可，否则直接拒绝。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public class TokenBucketLimiter implements Limiter {
+
+    /** 速率限流不需要归还许可 */
+    private static final Permit PERMIT = new Permit() {
+        public void release() {
+        }
+
+        public void drop() {
+        }
+
+        public void ignore() {
+        }
+    };
+
+    /** 生成一个令牌的间隔 */
+    private final long intervalNanos;
+    private final int burst;
+    private final long maxWaitNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    /** 以下字段只在锁内访问 */
+    private double storedTokens;
+    /** 已预约的令牌都生成完毕的时间，之后才开始积累，可能在将来 */
+    private long nextFreeNanos;
+
+    /** 不等待，令牌不足时直接拒绝 */
+    public TokenBucketLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Duration.ZERO);
+    }
+
+    /**
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @param burst            最多积累的令牌数
+     * @param maxWait          最长等待时间
+     */
+    public TokenBucketLimiter(double permitsPerSecond, int burst, Duration maxWait) {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        if (burst < 1) throw new IllegalArgumentException("burst must be > 0");
+        if (maxWait.isNegative()) throw new IllegalArgumentException("maxWait must not be negative");
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burst = burst;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.storedTokens = burst;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * 预约一个令牌
+     *
+     * @return 需要等待的时间，超过 maxWait 时返回 -1 且不预约
+     */
+    private synchronized long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        if (now > nextFreeNanos) {
+            storedTokens = Math.min(burst, storedTokens + (double) (now - nextFreeNanos) / intervalNanos);
+            nextFreeNanos = now;
+        }
+        //积累的令牌不足一个时，等待生成剩余的部分
+        double fromStored = Math.min(1, storedTokens);
+        long missingNanos = (long) ((1 - fromStored) * intervalNanos);
+        long wait = nextFreeNanos - now + missingNanos;
+        if (wait > maxWaitNanos) return -1;
+        storedTokens -= fromStored;
+        nextFreeNanos += missingNanos;
+        return wait;
+    }
+
+    @Override
+    public Permit tryAcquire() {
+        return reserve(0) == 0 ? PERMIT : null;
+    }
+
+    @Override
+    public PromiseImpl<Permit> acquire() {
+        PromiseImpl<Permit> promise = new PromiseImpl<>();
+        long wait = reserve(maxWaitNanos);
+        if (wait < 0) {
+            rejected.increment();
+            promise.onError(new RejectedExecutionException("rate limit exceeded"));
+        } else if (wait == 0) {
+            promise.onSuccess(PERMIT);
+        } else {
+            HashedWheelTimer.shared().newTimeout(() -> promise.onSuccess(PERMIT), wait, TimeUnit.NANOSECONDS);
+        }
+        return promise;
+    }
+
+    /** @return {@link #acquire()} 因等待时间超过 maxWait 而拒绝的调用数 */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+/**
+ * 参考 TCP Vegas 的并发限制。
+ * <p>
+ * 以观察到的最小耗时作为无负载耗时，按 limit × (1 - 无负载耗时 / 当前耗时) 估算排队的调用数：
+ * 排队很少时快速增加，较少时缓慢增加，较多时减少，按对数步长调整。
+ * 每隔若干个样本以当前耗时重置无负载耗时，避免下游变慢后仍以过小的基准计算。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+public class VegasLimit extends AbstractLimit {
+
+    /** 每 PROBE_MULTIPLIER × limit 个样本重新探测无负载耗时 */
+    private static final int PROBE_MULTIPLIER = 30;
+
+    /** 以下字段只在锁内访问 */
+    private long rttNoLoad;
+    private long samples;
+
+    public VegasLimit() {
+        this(20, 1, 1000);
+    }
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        super(initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    double update(double estimate, long rttNanos, int inflight, boolean dropped) {
+        if (++samples >= PROBE_MULTIPLIER * estimate) {
+            samples = 0;
+            rttNoLoad = rttNanos;
+            return estimate;
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return estimate;
+        }
+        double step = Math.max(1, Math.log10(estimate));
+        if (dropped) return estimate - step;
+        //并发未用满时耗时不能说明容量
+        if (inflight * 2 < estimate) return estimate;
+        double queueSize = Math.ceil(estimate * (1 - (double) rttNoLoad / rttNanos));
+        if (queueSize <= step) return estimate + 6 * step;
+        if (queueSize < 3 * step) return estimate + step;
+        if (queueSize > 6 * step) return estimate - step;
+        return estimate;
+    }
+}
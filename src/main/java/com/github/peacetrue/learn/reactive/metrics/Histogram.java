@@ -0,0 +1,110 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数线性直方图，类似 HdrHistogram。
+ * <p>
+ * 小于 2^{@link #SUB_BITS} 的值每个值一个桶；更大的值按最高位分段，每段再线性分为 2^{@link #SUB_BITS} 个桶，
+ * 因此相对误差不超过 1/2^{@link #SUB_BITS}（约 3%），桶数固定，记录时只需要一次原子自增。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 20:30
+ **/
+public class Histogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    /** @return 桶中的最大值 */
+    static long highestValueOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT;
+        return ((SUB_COUNT + sub + 1) << shift) - 1;
+    }
+
+    /**
+     * 记录一个值，负数视为 0
+     *
+     * @param value 值，通常是纳秒
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * 计算百分位数，并发记录时是近似值
+     *
+     * @param percentile 百分位，0 到 100
+     * @return 百分位数，不超过最大值
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) total += snapshot[i] = counts.get(i);
+        return valueAtPercentile(snapshot, total, percentile);
+    }
+
+    private long valueAtPercentile(long[] snapshot, long total, double percentile) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * total));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += snapshot[i];
+            if (accumulated >= target) return Math.min(highestValueOf(i), getMax());
+        }
+        return getMax();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) total += snapshot[i] = counts.get(i);
+        return new HistogramSnapshot(total, getMean(),
+                valueAtPercentile(snapshot, total, 50),
+                valueAtPercentile(snapshot, total, 99),
+                valueAtPercentile(snapshot, total, 99.9),
+                getMax());
+    }
+
+    /** 清空，与并发记录同时进行时可能丢失少量记录 */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
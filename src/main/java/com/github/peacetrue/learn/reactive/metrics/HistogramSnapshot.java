@@ -0,0 +1,31 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 直方图快照，可以通过 JMX 以 CompositeData 的形式读取
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 20:30
+ **/
+@Getter
+@ToString
+public class HistogramSnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    public HistogramSnapshot(long count, double mean, long p50, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+}
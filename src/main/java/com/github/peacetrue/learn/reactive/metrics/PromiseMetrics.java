@@ -0,0 +1,157 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 承诺的全局指标：进行中的承诺数、完成数、失败数、回调异常数，异步阶段的排队等待和执行耗时（纳秒），以及重试调用的尝试次数。
+ * <p>
+ * 默认关闭，关闭时埋点只读取一个 volatile 字段；可通过系统属性 {@value #PROPERTY} 开启，
+ * 开启时自动注册 JMX，也可以通过 {@link #snapshot()} 拉取。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 20:40
+ **/
+@Slf4j
+public abstract class PromiseMetrics {
+
+    public static final String PROPERTY = "learn.reactive.metrics";
+    public static final String OBJECT_NAME = "com.github.peacetrue.learn.reactive:type=PromiseMetrics";
+
+    private static volatile boolean enabled;
+
+    private static final LongAdder IN_FLIGHT = new LongAdder();
+    private static final LongAdder COMPLETED = new LongAdder();
+    private static final LongAdder FAILED = new LongAdder();
+    private static final LongAdder CALLBACK_EXCEPTIONS = new LongAdder();
+    private static final Histogram QUEUE_WAIT = new Histogram();
+    private static final Histogram EXECUTION = new Histogram();
+    private static final Histogram ATTEMPTS = new Histogram();
+
+    static {
+        if (Boolean.getBoolean(PROPERTY)) {
+            enabled = true;
+            register();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PromiseMetrics.enabled = enabled;
+    }
+
+    //-----------------埋点------------------------
+    public static void created() {
+        IN_FLIGHT.increment();
+    }
+
+    /** 只对创建时已计数的承诺调用 */
+    public static void completed(boolean success) {
+        IN_FLIGHT.decrement();
+        if (success) COMPLETED.increment();
+        else FAILED.increment();
+    }
+
+    public static void callbackException() {
+        if (enabled) CALLBACK_EXCEPTIONS.increment();
+    }
+
+    public static void queueWait(long nanos) {
+        QUEUE_WAIT.record(nanos);
+    }
+
+    public static void execution(long nanos) {
+        EXECUTION.record(nanos);
+    }
+
+    /** 重试调用结束时记录总尝试次数，包括第一次 */
+    public static void attempts(int attempts) {
+        ATTEMPTS.record(attempts);
+    }
+
+    //-----------------读取------------------------
+    /** @return 当前指标的快照，两次快照的完成数之差除以时间差即吞吐量 */
+    public static PromiseMetricsSnapshot snapshot() {
+        return new PromiseMetricsSnapshot(System.currentTimeMillis(),
+                IN_FLIGHT.sum(), COMPLETED.sum(), FAILED.sum(), CALLBACK_EXCEPTIONS.sum(),
+                QUEUE_WAIT.snapshot(), EXECUTION.snapshot(), ATTEMPTS.snapshot());
+    }
+
+    public static void reset() {
+        COMPLETED.reset();
+        FAILED.reset();
+        CALLBACK_EXCEPTIONS.reset();
+        QUEUE_WAIT.reset();
+        EXECUTION.reset();
+        ATTEMPTS.reset();
+    }
+
+    /**
+     * 注册 JMX，重复注册时忽略
+     *
+     * @return true 如果本次调用注册成功
+     */
+    public static synchronized boolean register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) return false;
+            server.registerMBean(new MXBean(), name);
+            return true;
+        } catch (JMException exception) {
+            log.warn("register promise metrics mbean exception", exception);
+            return false;
+        }
+    }
+
+    private static class MXBean implements PromiseMetricsMXBean {
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            PromiseMetrics.setEnabled(enabled);
+        }
+
+        public long getInFlight() {
+            return IN_FLIGHT.sum();
+        }
+
+        public long getCompleted() {
+            return COMPLETED.sum();
+        }
+
+        public long getFailed() {
+            return FAILED.sum();
+        }
+
+        public long getCallbackExceptions() {
+            return CALLBACK_EXCEPTIONS.sum();
+        }
+
+        public HistogramSnapshot getQueueWait() {
+            return QUEUE_WAIT.snapshot();
+        }
+
+        public HistogramSnapshot getExecution() {
+            return EXECUTION.snapshot();
+        }
+
+        public HistogramSnapshot getAttempts() {
+            return ATTEMPTS.snapshot();
+        }
+
+        public void reset() {
+            PromiseMetrics.reset();
+        }
+    }
+}
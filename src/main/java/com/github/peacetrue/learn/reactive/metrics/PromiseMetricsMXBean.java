@@ -0,0 +1,30 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+/**
+ * 承诺指标的 JMX 接口
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 20:40
+ **/
+public interface PromiseMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getInFlight();
+
+    long getCompleted();
+
+    long getFailed();
+
+    long getCallbackExceptions();
+
+    HistogramSnapshot getQueueWait();
+
+    HistogramSnapshot getExecution();
+
+    HistogramSnapshot getAttempts();
+
+    void reset();
+}
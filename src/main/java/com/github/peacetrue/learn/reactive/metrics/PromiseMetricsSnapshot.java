@@ -0,0 +1,40 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 承诺指标的快照
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 20:40
+ **/
+@Getter
+@ToString
+public class PromiseMetricsSnapshot {
+
+    /** 快照时间，毫秒 */
+    private final long timestamp;
+    private final long inFlight;
+    private final long completed;
+    private final long failed;
+    private final long callbackExceptions;
+    /** 异步阶段从调度到开始执行的等待时间，纳秒 */
+    private final HistogramSnapshot queueWait;
+    /** 异步阶段的执行时间，纳秒 */
+    private final HistogramSnapshot execution;
+    /** 每次重试调用的尝试次数 */
+    private final HistogramSnapshot attempts;
+
+    PromiseMetricsSnapshot(long timestamp, long inFlight, long completed, long failed, long callbackExceptions,
+                           HistogramSnapshot queueWait, HistogramSnapshot execution, HistogramSnapshot attempts) {
+        this.timestamp = timestamp;
+        this.inFlight = inFlight;
+        this.completed = completed;
+        this.failed = failed;
+        this.callbackExceptions = callbackExceptions;
+        this.queueWait = queueWait;
+        this.execution = execution;
+        this.attempts = attempts;
+    }
+}
@@ -0,0 +1,400 @@
+package com.github.peacetrue.learn.reactive.primitive;
+
+import com.github.peacetrue.learn.reactive.flow.Subscriptions;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * 元素为 double 的发布者，数据以原始类型传递，不装箱。
+ * <p>
+ * map、filter 直接调用下游订阅者，不经过队列；相邻的 map 合并为一个函数，相邻的 filter 合并为一个谓词，
+ * 生成器之后的 map 直接合并到生成器中。需要交给泛型的 {@link Flow.Subscriber} 时，通过 {@link #boxed()} 转换。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 15:20
+ **/
+public abstract class DoublePublisher {
+
+    public abstract void subscribe(DoubleSubscriber subscriber);
+
+    public static DoublePublisher of(double... items) {
+        Objects.requireNonNull(items);
+        return generate(items.length, index -> items[(int) index]);
+    }
+
+    /**
+     * 根据下标生成数据
+     *
+     * @param count     数据量
+     * @param generator 下标到数据的函数，可能被多个订阅者同时调用
+     * @return 发布者
+     */
+    public static DoublePublisher generate(long count, LongToDoubleFunction generator) {
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0, but " + count);
+        return new GeneratePublisher(count, Objects.requireNonNull(generator));
+    }
+
+    public DoublePublisher map(DoubleUnaryOperator mapper) {
+        return new MapPublisher(this, Objects.requireNonNull(mapper));
+    }
+
+    public DoublePublisher filter(DoublePredicate predicate) {
+        return new FilterPublisher(this, Objects.requireNonNull(predicate));
+    }
+
+    /** @return 归约结果，没有数据时直接完成 */
+    public DoublePublisher reduce(DoubleBinaryOperator accumulator) {
+        return new ReducePublisher(this, false, 0D, Objects.requireNonNull(accumulator));
+    }
+
+    /** @return 总和，没有数据时为 0 */
+    public DoublePublisher sum() {
+        return new ReducePublisher(this, true, 0D, Double::sum);
+    }
+
+    /** @return 最小值，没有数据时直接完成 */
+    public DoublePublisher min() {
+        return reduce(Math::min);
+    }
+
+    /** @return 最大值，没有数据时直接完成 */
+    public DoublePublisher max() {
+        return reduce(Math::max);
+    }
+
+    /** @return 装箱后的发布者，只在需要与泛型订阅者协作时使用 */
+    public Flow.Publisher<Double> boxed() {
+        return subscriber -> subscribe(new BoxedSubscriber(subscriber));
+    }
+
+    private static class GeneratePublisher extends DoublePublisher {
+        private final long count;
+        private final LongToDoubleFunction generator;
+
+        private GeneratePublisher(long count, LongToDoubleFunction generator) {
+            this.count = count;
+            this.generator = generator;
+        }
+
+        public void subscribe(DoubleSubscriber subscriber) {
+            subscriber.onSubscribe(new GenerateSubscription(subscriber, count, generator));
+        }
+
+        public DoublePublisher map(DoubleUnaryOperator mapper) {
+            Objects.requireNonNull(mapper);
+            return new GeneratePublisher(count, index -> mapper.applyAsDouble(generator.applyAsDouble(index)));
+        }
+    }
+
+    /** 自身即未满足的请求数量，发布方式同 SamplePublisher */
+    private static class GenerateSubscription extends AtomicLong implements Flow.Subscription {
+        private final DoubleSubscriber subscriber;
+        private final long count;
+        private final LongToDoubleFunction generator;
+        private long index;
+        private volatile boolean cancelled;
+
+        private GenerateSubscription(DoubleSubscriber subscriber, long count, LongToDoubleFunction generator) {
+            this.subscriber = subscriber;
+            this.count = count;
+            this.generator = generator;
+        }
+
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancelled = true;
+                subscriber.onError(exception);
+                return;
+            }
+            if (Subscriptions.addCap(this, n) == 0) drain(n);
+        }
+
+        private void drain(long requested) {
+            long index = this.index, count = this.count, emitted = 0;
+            DoubleSubscriber subscriber = this.subscriber;
+            for (; ; ) {
+                while (emitted != requested && index != count) {
+                    if (cancelled) return;
+                    double item;
+                    try {
+                        item = generator.applyAsDouble(index++);
+                    } catch (Throwable exception) {
+                        cancelled = true;
+                        subscriber.onError(exception);
+                        return;
+                    }
+                    //被过滤的数据不计入已发布数量
+                    if (subscriber.tryOnNext(item)) emitted++;
+                }
+
+                if (index == count) {
+                    if (!cancelled) subscriber.onComplete();
+                    return;
+                }
+
+                requested = get();
+                if (requested == emitted) {
+                    this.index = index;
+                    requested = Subscriptions.produced(this, emitted);
+                    if (requested == 0) return;
+                    emitted = 0;
+                }
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /** 操作符的订阅者基类，直接透传上游的订阅 */
+    private abstract static class OperatorSubscriber implements DoubleSubscriber {
+        protected final DoubleSubscriber downstream;
+        protected Flow.Subscription upstream;
+        protected boolean done;
+
+        private OperatorSubscriber(DoubleSubscriber downstream) {
+            this.downstream = downstream;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        protected void fail(Throwable exception) {
+            done = true;
+            upstream.cancel();
+            downstream.onError(exception);
+        }
+
+        public void onError(Throwable throwable) {
+            if (done) return;
+            done = true;
+            downstream.onError(throwable);
+        }
+
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            downstream.onComplete();
+        }
+    }
+
+    private static class MapPublisher extends DoublePublisher {
+        private final DoublePublisher source;
+        private final DoubleUnaryOperator mapper;
+
+        private MapPublisher(DoublePublisher source, DoubleUnaryOperator mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        public void subscribe(DoubleSubscriber subscriber) {
+            source.subscribe(new MapSubscriber(subscriber, mapper));
+        }
+
+        public DoublePublisher map(DoubleUnaryOperator mapper) {
+            return new MapPublisher(source, this.mapper.andThen(Objects.requireNonNull(mapper)));
+        }
+    }
+
+    private static class MapSubscriber extends OperatorSubscriber {
+        private final DoubleUnaryOperator mapper;
+
+        private MapSubscriber(DoubleSubscriber downstream, DoubleUnaryOperator mapper) {
+            super(downstream);
+            this.mapper = mapper;
+        }
+
+        public void onNext(double item) {
+            //上游不支持 tryOnNext 时，补充请求被下游过滤掉的数量
+            if (!tryOnNext(item) && !done) upstream.request(1);
+        }
+
+        public boolean tryOnNext(double item) {
+            if (done) return false;
+            double mapped;
+            try {
+                mapped = mapper.applyAsDouble(item);
+            } catch (Throwable exception) {
+                fail(exception);
+                return false;
+            }
+            return downstream.tryOnNext(mapped);
+        }
+    }
+
+    private static class FilterPublisher extends DoublePublisher {
+        private final DoublePublisher source;
+        private final DoublePredicate predicate;
+
+        private FilterPublisher(DoublePublisher source, DoublePredicate predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        public void subscribe(DoubleSubscriber subscriber) {
+            source.subscribe(new FilterSubscriber(subscriber, predicate));
+        }
+
+        public DoublePublisher filter(DoublePredicate predicate) {
+            return new FilterPublisher(source, this.predicate.and(Objects.requireNonNull(predicate)));
+        }
+    }
+
+    private static class FilterSubscriber extends OperatorSubscriber {
+        private final DoublePredicate predicate;
+
+        private FilterSubscriber(DoubleSubscriber downstream, DoublePredicate predicate) {
+            super(downstream);
+            this.predicate = predicate;
+        }
+
+        public void onNext(double item) {
+            //上游不支持 tryOnNext 时，补充请求被过滤掉的数量
+            if (!tryOnNext(item) && !done) upstream.request(1);
+        }
+
+        public boolean tryOnNext(double item) {
+            if (done) return false;
+            boolean matched;
+            try {
+                matched = predicate.test(item);
+            } catch (Throwable exception) {
+                fail(exception);
+                return false;
+            }
+            return matched && downstream.tryOnNext(item);
+        }
+    }
+
+    private static class ReducePublisher extends DoublePublisher {
+        private final DoublePublisher source;
+        private final boolean seeded;
+        private final double seed;
+        private final DoubleBinaryOperator accumulator;
+
+        private ReducePublisher(DoublePublisher source, boolean seeded, double seed, DoubleBinaryOperator accumulator) {
+            this.source = source;
+            this.seeded = seeded;
+            this.seed = seed;
+            this.accumulator = accumulator;
+        }
+
+        public void subscribe(DoubleSubscriber subscriber) {
+            source.subscribe(new ReduceSubscriber(subscriber, seeded, seed, accumulator));
+        }
+    }
+
+    /**
+     * 向上游请求全部数据并归约，结果在下游请求后发布。
+     * 状态位 {@link #REQUESTED} 和 {@link #DONE} 均被设置时发布结果，由设置后一个状态位的线程负责。
+     */
+    private static class ReduceSubscriber extends AtomicInteger implements DoubleSubscriber, Flow.Subscription {
+        private static final int REQUESTED = 1, DONE = 2, CANCELLED = 4;
+
+        private final DoubleSubscriber downstream;
+        private final DoubleBinaryOperator accumulator;
+        private Flow.Subscription upstream;
+        private boolean hasValue;
+        private double value;
+        private boolean done;
+
+        private ReduceSubscriber(DoubleSubscriber downstream, boolean seeded, double seed, DoubleBinaryOperator accumulator) {
+            this.downstream = downstream;
+            this.hasValue = seeded;
+            this.value = seed;
+            this.accumulator = accumulator;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        public void onNext(double item) {
+            if (done) return;
+            if (!hasValue) {
+                value = item;
+                hasValue = true;
+                return;
+            }
+            try {
+                value = accumulator.applyAsDouble(value, item);
+            } catch (Throwable exception) {
+                done = true;
+                upstream.cancel();
+                downstream.onError(exception);
+            }
+        }
+
+        public void onError(Throwable throwable) {
+            if (done) return;
+            done = true;
+            downstream.onError(throwable);
+        }
+
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            if (!hasValue) {
+                downstream.onComplete();
+                return;
+            }
+            if (getAndUpdate(state -> state | DONE) == REQUESTED) emit();
+        }
+
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancel();
+                downstream.onError(exception);
+                return;
+            }
+            if (getAndUpdate(state -> state | REQUESTED) == DONE) emit();
+        }
+
+        private void emit() {
+            downstream.onNext(value);
+            downstream.onComplete();
+        }
+
+        public void cancel() {
+            if ((getAndUpdate(state -> state | CANCELLED) & CANCELLED) == 0) upstream.cancel();
+        }
+    }
+
+    private static class BoxedSubscriber implements DoubleSubscriber {
+        private final Flow.Subscriber<? super Double> downstream;
+
+        private BoxedSubscriber(Flow.Subscriber<? super Double> downstream) {
+            this.downstream = downstream;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            downstream.onSubscribe(subscription);
+        }
+
+        public void onNext(double item) {
+            downstream.onNext(item);
+        }
+
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        public void onComplete() {
+            downstream.onComplete();
+        }
+    }
+}
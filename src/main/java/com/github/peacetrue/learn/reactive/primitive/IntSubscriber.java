@@ -0,0 +1,31 @@
+package com.github.peacetrue.learn.reactive.primitive;
+
+import java.util.concurrent.Flow;
+
+/**
+ * 元素为 int 的订阅者，与 {@link Flow.Subscriber} 的约定相同
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 15:10
+ **/
+public interface IntSubscriber {
+
+    void onSubscribe(Flow.Subscription subscription);
+
+    void onNext(int item);
+
+    /**
+     * 发布一条数据，由支持过滤的订阅者重写
+     *
+     * @param item 数据
+     * @return false 表示数据被过滤，不计入已发布数量，发布者无需为此追加请求
+     */
+    default boolean tryOnNext(int item) {
+        onNext(item);
+        return true;
+    }
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+}
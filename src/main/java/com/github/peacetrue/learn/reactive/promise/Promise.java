@@ -1,7 +1,13 @@
 package com.github.peacetrue.learn.reactive.promise;
 
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  *
@@ -14,7 +20,116 @@ public interface Promise<T> {
 
     Promise<T> whenComplete(Runnable runnable);
 
+    /**
+     * 完成时回调，成功时异常为 null，失败时结果为 null
+     *
+     * @param consumer 回调
+     * @return 当前承诺
+     */
+    default Promise<T> whenDone(BiConsumer<? super T, ? super Throwable> consumer) {
+        return this
+                .whenSuccess(value -> consumer.accept(value, null))
+                .whenError(exception -> consumer.accept(null, exception));
+    }
+
     <V> Promise<Tuple2<T, V>> zip(Promise<V> promise);
 
+    /**
+     * 在完成承诺的线程上转换结果，适用于耗时很短的转换
+     *
+     * @param function 转换函数
+     * @param <V>      转换后的结果类型
+     * @return 转换后的承诺
+     */
+    <V> Promise<V> thenApply(Function<T, V> function);
+
+    /**
+     * 以结果创建下一个承诺，并以其结果完成
+     *
+     * @param function 创建下一个承诺的函数
+     * @param <V>      下一个承诺的结果类型
+     * @return 以下一个承诺的结果完成的承诺
+     */
+    <V> Promise<V> thenCompose(Function<T, ? extends Promise<V>> function);
+
+    /** @see #thenCompose(Function) */
+    default <V> Promise<V> flatMap(Function<T, ? extends Promise<V>> function) {
+        return thenCompose(function);
+    }
+
     <V> Promise<V> thenApplyAsync(Function<T, V> function);
+
+    <V> Promise<V> thenApplyAsync(Function<T, V> function, Scheduler scheduler);
+
+    /**
+     * 取消承诺，以 {@link java.util.concurrent.CancellationException} 失败，并向上游传播：
+     * 取消上游承诺，跳过尚未开始的任务
+     *
+     * @param mayInterruptIfRunning 是否中断正在执行的任务
+     * @return true 如果本次调用取消了承诺，已完成时返回 false
+     */
+    boolean cancel(boolean mayInterruptIfRunning);
+
+    boolean isCancelled();
+
+    /**
+     * 超时未完成时以 {@link java.util.concurrent.TimeoutException} 失败，并像取消一样向上游传播
+     *
+     * @param timeout 超时时长
+     * @return 当前承诺
+     */
+    Promise<T> orTimeout(Duration timeout);
+
+    /**
+     * 超时未完成时以指定结果成功
+     *
+     * @param value   超时时的结果
+     * @param timeout 超时时长
+     * @return 当前承诺
+     */
+    Promise<T> completeOnTimeout(T value, Duration timeout);
+
+    /**
+     * 等待所有承诺成功，任一失败时立即失败
+     *
+     * @param promises 承诺
+     * @param <T>      结果类型
+     * @return 按输入顺序排列的结果
+     */
+    static <T> Promise<List<T>> all(List<? extends Promise<? extends T>> promises) {
+        return PromiseImpl.all(promises);
+    }
+
+    /**
+     * 等待所有承诺成功，任一失败时立即失败
+     *
+     * @param promises 承诺，结果类型可以不同
+     * @return 按输入顺序排列的结果数组
+     */
+    static Promise<Object[]> zipAll(List<? extends Promise<?>> promises) {
+        return PromiseImpl.zipAll(promises);
+    }
+
+    /**
+     * 取最先成功的结果，所有承诺都失败时才失败
+     *
+     * @param promises 承诺
+     * @param <T>      结果类型
+     * @return 最先成功的结果
+     */
+    static <T> Promise<T> any(List<? extends Promise<? extends T>> promises) {
+        return PromiseImpl.any(promises);
+    }
+
+    /**
+     * 失败时按策略重新执行，重试之间的等待不占用线程
+     *
+     * @param action 每次尝试调用一次，返回本次尝试的承诺
+     * @param policy 重试策略
+     * @param <T>    结果类型
+     * @return 最后一次尝试的结果
+     */
+    static <T> Promise<T> retry(Supplier<? extends Promise<T>> action, RetryPolicy policy) {
+        return PromiseImpl.retry(action, policy);
+    }
 }
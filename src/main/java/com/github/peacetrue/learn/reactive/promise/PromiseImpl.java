@@ -2,136 +2,899 @@ package com.github.peacetrue.learn.reactive.promise;
 
 import com.github.peacetrue.learn.reactive.callback.CallbackHandler;
 import com.github.peacetrue.learn.reactive.callback.CallbackResult;
+import com.github.peacetrue.learn.reactive.context.PromiseContext;
+import com.github.peacetrue.learn.reactive.metrics.PromiseMetrics;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import com.github.peacetrue.learn.reactive.timer.HashedWheelTimer;
+import com.github.peacetrue.learn.reactive.timer.Timeout;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
+ * 基于单个原子状态字实现的承诺。
+ * <p>
+ * 状态字 {@link #state} 的取值：
+ * <ul>
+ *     <li>null：未完成，没有回调</li>
+ *     <li>{@link Continuation}：未完成，指向回调栈（Treiber 栈）的栈顶，只有一个回调时不需要额外的列表</li>
+ *     <li>{@link Outcome}：已完成，结果为 null 或者异常</li>
+ *     <li>其他对象：已完成，即结果本身</li>
+ * </ul>
+ * 完成时通过 CAS 取走整个回调栈，注册回调时通过 CAS 压栈，压栈失败说明已完成则直接执行，
+ * 因此每个回调恰好执行一次。
+ * <p>
+ * 回调通过线程内的蹦床 {@link Trampoline} 执行：回调中完成其他承诺时，其回调排队等待外层循环执行，
+ * 而不是递归执行，因此同步的长链不会栈溢出。
+ * <p>
+ * 取消或超时时，通过取消钩子 {@link #cancelHooks} 向上游传播：取消上游承诺、跳过或中断尚未完成的任务。
+ * <p>
+ * 创建时捕获当前线程的上下文 {@link PromiseContext}，派生的承诺沿用该上下文，
+ * 回调和异步转换执行期间恢复该上下文。
+ *
  * @author : xiayx
  * @since : 2020-12-20 12:47
  **/
 @Slf4j
 public class PromiseImpl<T> extends CallbackResult<T> implements Promise<T>, CallbackHandler<T> {
 
-    private final List<Consumer<T>> successConsumers = new LinkedList<>();
-    private final List<Consumer<Throwable>> errorConsumers = new LinkedList<>();
-    private final List<Runnable> completeRunnables = new LinkedList<>();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<PromiseImpl, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseImpl.class, Object.class, "state");
+    /** 结果为 null */
+    private static final Outcome NIL = new Outcome(null);
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<PromiseImpl, CancelHook> CANCEL_HOOKS =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseImpl.class, CancelHook.class, "cancelHooks");
+    /** 已完成，不再接受取消钩子 */
+    private static final CancelHook CLOSED = new CancelHook(interrupt -> {
+    });
+    private static final ThreadLocal<Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
+
+    private volatile Object state;
+    /**
+     * 完成当前承诺的异步阶段，用于融合后续的异步转换；任务执行完该阶段后清除，
+     * 避免已完成的承诺通过阶段引用任务及下游的承诺
+     */
+    private AsyncStage stage;
+    /** 取消钩子栈 */
+    private volatile CancelHook cancelHooks;
+    /** 创建时开启了指标，完成时需要计数 */
+    private final boolean tracked;
+    /** 承诺链的上下文，派生的承诺在发布前写入 */
+    private PromiseContext context;
+
+    public PromiseImpl() {
+        this.tracked = PromiseMetrics.isEnabled();
+        if (tracked) PromiseMetrics.created();
+        this.context = PromiseContext.current();
+    }
+
+    /** @return 承诺链的上下文 */
+    public PromiseContext getContext() {
+        return context;
+    }
 
     public void onSuccess(T result) {
-        this.setValue(result);
-        this.setCompleted(true);
-        for (Consumer<T> successConsumer : successConsumers) {
-            try {
-                successConsumer.accept(getValue());
-            } catch (Throwable exception) {
-                log.warn("success consumer invoke exception", exception);
+        complete(result == null ? NIL : result);
+    }
+
+    public void onError(Throwable exception) {
+        complete(new Outcome(exception));
+    }
+
+    public void onComplete() {
+        //未经 onSuccess 或 onError 直接完成时，视为结果为 null
+        complete(NIL);
+    }
+
+    /**
+     * 完成承诺，只有第一次调用生效
+     *
+     * @param result 编码后的结果
+     * @return true 如果本次调用完成了承诺
+     */
+    @SuppressWarnings("unchecked")
+    private boolean complete(Object result) {
+        Object current;
+        do {
+            current = state;
+            if (isDone(current)) return false;
+        } while (!STATE.compareAndSet(this, current, result));
+        wakeWaiters();
+        if (tracked) PromiseMetrics.completed(!(result instanceof Outcome) || ((Outcome) result).exception == null);
+        //总是封闭钩子栈，完成后注册的钩子不会入栈而永不执行
+        CancelHook hooks = CANCEL_HOOKS.getAndSet(this, CLOSED);
+        //取消沿着长链向上游传播时同样经过蹦床，不会递归
+        if (hooks != null && isCancellation(result)) fire(new CancelContinuation<>(hooks, ((Outcome) result).interrupt), result, context);
+        fire(reverse((Continuation<T>) current), result, context);
+        return true;
+    }
+
+    /** 取消或自身超时，用户以 {@link TimeoutException} 失败时不视为取消 */
+    private static boolean isCancellation(Object result) {
+        if (!(result instanceof Outcome)) return false;
+        Outcome outcome = (Outcome) result;
+        return outcome.cancellation || outcome.exception instanceof CancellationException;
+    }
+
+    /**
+     * 注册取消钩子，本承诺被取消或超时时执行；已取消时立即执行，以其他方式完成时忽略
+     *
+     * @param hook 参数为是否中断正在执行的任务
+     */
+    void onCancel(Consumer<Boolean> hook) {
+        CancelHook node = new CancelHook(hook), current;
+        do {
+            current = cancelHooks;
+            if (current == CLOSED) {
+                Object result = state;
+                if (isCancellation(result)) CancelHook.run(node, ((Outcome) result).interrupt);
+                return;
             }
+            node.next = current;
+        } while (!CANCEL_HOOKS.compareAndSet(this, current, node));
+    }
+
+    /** 回调栈是后进先出，翻转后按注册顺序执行 */
+    private static <T> Continuation<T> reverse(Continuation<T> head) {
+        Continuation<T> reversed = null;
+        while (head != null) {
+            Continuation<T> next = head.next;
+            head.next = reversed;
+            reversed = head;
+            head = next;
         }
+        return reversed;
     }
 
-    public void onError(Throwable exception) {
-        this.setException(exception);
-        this.setCompleted(true);
-        for (Consumer<Throwable> errorConsumer : errorConsumers) {
-            try {
-                errorConsumer.accept(getException());
-            } catch (Throwable consumerException) {
-                log.warn("error consumer invoke exception", consumerException);
+    /** 当前线程正在执行回调时，排队等待外层循环执行 */
+    private static void fire(Continuation<?> head, Object result, PromiseContext context) {
+        if (head == null) return;
+        Trampoline trampoline = TRAMPOLINE.get();
+        if (trampoline.draining) {
+            trampoline.queue.add(head);
+            trampoline.queue.add(result);
+            trampoline.queue.add(context);
+            return;
+        }
+        trampoline.draining = true;
+        try {
+            fireNow(head, result, context);
+            Object next;
+            while ((next = trampoline.queue.poll()) != null) {
+                fireNow((Continuation<?>) next, trampoline.queue.poll(), (PromiseContext) trampoline.queue.poll());
             }
+        } finally {
+            trampoline.queue.clear();
+            trampoline.draining = false;
         }
     }
 
-    public void onComplete() {
-        this.setCompleted(true);
-        for (Runnable completeRunnable : completeRunnables) {
-            try {
-                completeRunnable.run();
-            } catch (Throwable exception) {
-                log.warn("complete runnable invoke exception", exception);
+    /** 在承诺的上下文中执行回调栈 */
+    private static <T> void fireNow(Continuation<T> head, Object result, PromiseContext context) {
+        PromiseContext previous = PromiseContext.swap(context);
+        try {
+            while (head != null) {
+                Continuation<T> next = head.next;
+                head.next = null;
+                run(head, result);
+                head = next;
             }
+        } finally {
+            PromiseContext.swap(previous);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> void run(Continuation<T> continuation, Object result) {
+        try {
+            if (result instanceof Outcome) continuation.accept(null, ((Outcome) result).exception);
+            else continuation.accept((T) result, null);
+        } catch (Throwable exception) {
+            PromiseMetrics.callbackException();
+            log.warn("callback invoke exception", exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void push(Continuation<T> continuation) {
+        Object current;
+        do {
+            current = state;
+            if (isDone(current)) {
+                continuation.next = null;
+                fire(continuation, current, context);
+                return;
+            }
+            continuation.next = (Continuation<T>) current;
+        } while (!STATE.compareAndSet(this, current, continuation));
+    }
+
+    private static boolean isDone(Object state) {
+        return state != null && !(state instanceof Continuation);
+    }
+
+    //-----------------CallbackResult<T>------------------------
+    @Override
+    protected boolean complete(T value, Throwable exception) {
+        if (exception != null) return complete(new Outcome(exception));
+        return complete(value == null ? NIL : value);
+    }
+
+    @Override
+    public boolean isCompleted() {
+        return isDone(state);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        Object current = state;
+        return isDone(current) && !(current instanceof Outcome) ? (T) current : null;
+    }
+
+    @Override
+    public Throwable getException() {
+        Object current = state;
+        return current instanceof Outcome ? ((Outcome) current).exception : null;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        Object current = state;
+        return isDone(current) && (!(current instanceof Outcome) || ((Outcome) current).exception == null);
+    }
+
+    @Override
+    public boolean isError() {
+        return getException() != null;
+    }
+
+    //-----------------Cancel------------------------
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(new Outcome(new CancellationException("promise cancelled"), mayInterruptIfRunning, true));
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return getException() instanceof CancellationException;
+    }
+
+    /** 到期未完成时以 {@link TimeoutException} 失败，并中断上游尚未完成的任务 */
+    @Override
+    public PromiseImpl<T> orTimeout(Duration timeout) {
+        if (isCompleted()) return this;
+        Timeout handle = HashedWheelTimer.shared().newTimeout(
+                () -> complete(new Outcome(new TimeoutException("promise timeout after " + timeout), true, true)), timeout);
+        return whenComplete(handle::cancel);
+    }
+
+    /** 到期未完成时以 value 成功，不影响上游 */
+    @Override
+    public PromiseImpl<T> completeOnTimeout(T value, Duration timeout) {
+        if (isCompleted()) return this;
+        Timeout handle = HashedWheelTimer.shared().newTimeout(() -> onSuccess(value), timeout);
+        return whenComplete(handle::cancel);
+    }
+
     protected <V> PromiseImpl<V> init() {
         return new PromiseImpl<>();
     }
 
+    /** 创建派生的承诺，沿用当前承诺的上下文 */
+    private <V> PromiseImpl<V> derive() {
+        PromiseImpl<V> promise = init();
+        promise.context = context;
+        return promise;
+    }
+
+    //-----------------Promise<T>------------------------
     @Override
     public PromiseImpl<T> whenSuccess(Consumer<T> consumer) {
-        //TODO 存在并发问题，暂不考虑
-        if (this.isSuccess()) consumer.accept(getValue());
-        else this.successConsumers.add(consumer);
+        push(new SuccessContinuation<>(consumer));
         return this;
     }
 
     @Override
     public PromiseImpl<T> whenError(Consumer<Throwable> consumer) {
-        if (this.isError()) consumer.accept(getException());
-        else this.errorConsumers.add(consumer);
+        push(new ErrorContinuation<>(consumer));
         return this;
     }
 
     @Override
     public PromiseImpl<T> whenComplete(Runnable runnable) {
-        if (this.isCompleted()) runnable.run();
-        else this.completeRunnables.add(runnable);
+        push(new CompleteContinuation<>(runnable));
         return this;
     }
 
     @Override
-    public <V> PromiseImpl<Tuple2<T, V>> zip(Promise<V> promise) {
-        PromiseImpl<V> promiseImpl = (PromiseImpl<V>) promise;
-        PromiseImpl<Tuple2<T, V>> zipPromise = init();
+    public PromiseImpl<T> whenDone(BiConsumer<? super T, ? super Throwable> consumer) {
+        push(new DoneContinuation<>(consumer));
+        return this;
+    }
 
-        this.whenSuccess(t -> {
-            if (promiseImpl.isSuccess()) zipPromise.onSuccess(new Tuple2<>(t, promiseImpl.getValue()));
-        });
-        promiseImpl.whenSuccess(t -> {
-            if (this.isSuccess()) zipPromise.onSuccess(new Tuple2<>(this.getValue(), t));
-        });
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> PromiseImpl<Tuple2<T, V>> zip(Promise<V> promise) {
+        PromiseImpl<Tuple2<T, V>> zipPromise = derive();
+        return join(zipPromise, Arrays.asList(this, promise), values -> new Tuple2<>((T) values[0], (V) values[1]));
+    }
 
-        this.whenError(exception -> {
-            if (!zipPromise.isCompleted()) zipPromise.onError(exception);
-        });
-        promiseImpl.whenError(exception -> {
-            if (!zipPromise.isCompleted()) zipPromise.onError(exception);
+    @Override
+    public <V> PromiseImpl<V> thenApply(Function<T, V> function) {
+        PromiseImpl<V> promise = derive();
+        promise.onCancel(this::cancel);
+        this.whenDone((value, exception) -> {
+            if (exception != null) {
+                promise.onError(exception);
+                return;
+            }
+            V result;
+            try {
+                result = function.apply(value);
+            } catch (Throwable applyException) {
+                promise.onError(applyException);
+                return;
+            }
+            promise.onSuccess(result);
         });
+        return promise;
+    }
 
-        this.whenComplete(() -> {
-            if (promiseImpl.isCompleted()) zipPromise.onComplete();
-        });
-        promiseImpl.whenComplete(() -> {
-            if (this.isCompleted()) zipPromise.onComplete();
+    @Override
+    public <V> PromiseImpl<V> thenCompose(Function<T, ? extends Promise<V>> function) {
+        PromiseImpl<V> promise = derive();
+        promise.onCancel(this::cancel);
+        this.whenDone((value, exception) -> {
+            if (exception != null) {
+                promise.onError(exception);
+                return;
+            }
+            Promise<V> inner;
+            try {
+                inner = Objects.requireNonNull(function.apply(value), "thenCompose function returned null");
+            } catch (Throwable applyException) {
+                promise.onError(applyException);
+                return;
+            }
+            promise.onCancel(inner::cancel);
+            inner.whenDone((innerValue, innerException) -> {
+                if (innerException == null) promise.onSuccess(innerValue);
+                else promise.onError(innerException);
+            });
         });
+        return promise;
+    }
 
-        return zipPromise;
+    @Override
+    public <V> PromiseImpl<V> flatMap(Function<T, ? extends Promise<V>> function) {
+        return thenCompose(function);
     }
 
     public <V> PromiseImpl<V> thenApplyAsync(Function<T, V> function) {
-        PromiseImpl<V> promise = init();
-        this.successConsumers.add(value -> invoke(promise, () -> function.apply(value)));
-        this.errorConsumers.add(promise::onError);
+        return thenApplyAsync(function, Schedulers.defaults());
+    }
+
+    /**
+     * 当前承诺由同一调度器上尚未结束的任务完成时，直接将转换追加到该任务中，
+     * 与上游在同一次调度中依次执行，不再注册回调、创建任务和切换线程
+     */
+    @SuppressWarnings("unchecked")
+    public <V> PromiseImpl<V> thenApplyAsync(Function<T, V> function, Scheduler scheduler) {
+        PromiseImpl<V> promise = derive();
+        promise.onCancel(this::cancel);
+        Function<Object, Object> stageFunction = value -> function.apply((T) value);
+        //非 volatile 读取：读到过期的阶段时追加失败，读到 null 时不融合，都只是错过一次融合，结果不受影响
+        AsyncStage stage = this.stage;
+        if (stage != null && stage.task.scheduler == scheduler && stage.append(promise, stageFunction)) return promise;
+        AsyncTask task = new AsyncTask(scheduler, promise, stageFunction);
+        this.whenDone(task::start);
         return promise;
     }
 
     public static <T> PromiseImpl<T> invoke(Supplier<T> action) {
-        return invoke(new PromiseImpl<>(), action);
+        return invoke(action, Schedulers.defaults());
+    }
+
+    public static <T> PromiseImpl<T> invoke(Supplier<T> action, Scheduler scheduler) {
+        return invoke(new PromiseImpl<>(), action, scheduler);
+    }
+
+    static <T> PromiseImpl<T> invoke(PromiseImpl<T> promise, Supplier<T> action, Scheduler scheduler) {
+        prepare(promise, action, scheduler).schedule();
+        return promise;
+    }
+
+    /** 创建完成承诺的任务但不调度，调度前追加的转换都会融合到该任务中 */
+    static <T> AsyncTask prepare(PromiseImpl<T> promise, Supplier<T> action, Scheduler scheduler) {
+        return new AsyncTask(scheduler, promise, ignored -> action.get());
+    }
+
+    /**
+     * 等待所有承诺成功，结果按输入顺序排列
+     *
+     * @see Promise#zipAll(List)
+     */
+    public static PromiseImpl<Object[]> zipAll(List<? extends Promise<?>> promises) {
+        return join(new PromiseImpl<>(), promises, Function.identity());
+    }
+
+    /** @see Promise#all(List) */
+    @SuppressWarnings("unchecked")
+    public static <T> PromiseImpl<List<T>> all(List<? extends Promise<? extends T>> promises) {
+        return join(new PromiseImpl<>(), promises, values -> (List<T>) Arrays.asList(values));
+    }
+
+    /**
+     * 所有承诺都成功时，以 finisher 转换后的结果完成 joinPromise；任一承诺失败时立即失败。
+     * 所有输入共享一个计数器和结果数组，每个输入只注册一个回调。
+     */
+    private static <R> PromiseImpl<R> join(PromiseImpl<R> joinPromise, List<? extends Promise<?>> promises,
+                                           Function<Object[], R> finisher) {
+        JoinState<R> joinState = new JoinState<>(joinPromise, promises.size(), finisher);
+        joinPromise.onCancel(interrupt -> promises.forEach(promise -> promise.cancel(interrupt)));
+        if (promises.isEmpty()) {
+            joinPromise.onSuccess(finisher.apply(joinState.values));
+            return joinPromise;
+        }
+        for (int i = 0; i < promises.size(); i++) {
+            //已失败则不再注册剩余的回调
+            if (joinPromise.isCompleted()) break;
+            joinState.subscribe(promises.get(i), i);
+        }
+        return joinPromise;
+    }
+
+    /**
+     * 任一承诺成功即以其结果完成，所有承诺都失败时才失败
+     *
+     * @see Promise#any(List)
+     */
+    public static <T> PromiseImpl<T> any(List<? extends Promise<? extends T>> promises) {
+        PromiseImpl<T> anyPromise = new PromiseImpl<>();
+        if (promises.isEmpty()) {
+            anyPromise.onError(new IllegalArgumentException("promises must not be empty"));
+            return anyPromise;
+        }
+        Throwable[] exceptions = new Throwable[promises.size()];
+        AtomicInteger remaining = new AtomicInteger(promises.size());
+        for (int i = 0; i < promises.size(); i++) {
+            if (anyPromise.isCompleted()) break;
+            int index = i;
+            promises.get(i).whenDone((value, exception) -> {
+                if (exception == null) {
+                    anyPromise.onSuccess(value);
+                    return;
+                }
+                exceptions[index] = exception;
+                if (remaining.decrementAndGet() == 0) {
+                    IllegalStateException allFailed = new IllegalStateException("all " + exceptions.length + " promises failed");
+                    for (Throwable each : exceptions) allFailed.addSuppressed(each);
+                    anyPromise.onError(allFailed);
+                }
+            });
+        }
+        return anyPromise;
+    }
+
+    /**
+     * 执行 action 返回的承诺，失败时按策略重新执行。
+     * 两次尝试之间的等待由共享的时间轮定时器调度，不占用线程；重试时 action 在定时器线程上调用，应当只发起任务而不阻塞。
+     * 取消返回的承诺时取消正在进行的尝试和等待中的重试。
+     *
+     * @see Promise#retry(Supplier, RetryPolicy)
+     */
+    public static <T> PromiseImpl<T> retry(Supplier<? extends Promise<T>> action, RetryPolicy policy) {
+        PromiseImpl<T> promise = new PromiseImpl<>();
+        new Retry<>(promise, Objects.requireNonNull(action), Objects.requireNonNull(policy)).attempt();
+        return promise;
     }
 
-    private static <T> PromiseImpl<T> invoke(PromiseImpl<T> promise, Supplier<T> action) {
-        new Thread(() -> {
+    /** 一次重试调用的状态，尝试依次进行，前一次尝试完成后才开始下一次 */
+    private static final class Retry<T> {
+        private final PromiseImpl<T> promise;
+        private final Supplier<? extends Promise<T>> action;
+        private final RetryPolicy policy;
+        private volatile int attempts;
+        private volatile Promise<T> current;
+        private volatile Timeout timeout;
+
+        private Retry(PromiseImpl<T> promise, Supplier<? extends Promise<T>> action, RetryPolicy policy) {
+            this.promise = promise;
+            this.action = action;
+            this.policy = policy;
+            promise.onCancel(interrupt -> {
+                Timeout timeout = this.timeout;
+                if (timeout != null) timeout.cancel();
+                Promise<T> current = this.current;
+                if (current != null) current.cancel(interrupt);
+            });
+        }
+
+        private void attempt() {
+            if (promise.isCompleted()) return;
+            attempts++;
+            Promise<T> attempt;
+            //重试时在定时器线程上调用，恢复发起重试时的上下文
+            PromiseContext previous = PromiseContext.swap(promise.context);
             try {
-                promise.onSuccess(action.get());
+                attempt = Objects.requireNonNull(action.get(), "retry action returned null");
             } catch (Throwable exception) {
+                failed(exception);
+                return;
+            } finally {
+                PromiseContext.swap(previous);
+            }
+            current = attempt;
+            //设置 current 之前已取消
+            if (promise.isCompleted()) {
+                attempt.cancel(false);
+                return;
+            }
+            if (attempt instanceof PromiseProcess) ((PromiseProcess<T>) attempt).connect();
+            attempt.whenDone((value, exception) -> {
+                if (exception != null) {
+                    failed(exception);
+                    return;
+                }
+                if (promise.tracked) PromiseMetrics.attempts(attempts);
+                promise.onSuccess(value);
+            });
+        }
+
+        private void failed(Throwable exception) {
+            if (promise.isCompleted()) return;
+            int attempts = this.attempts;
+            if (!policy.shouldRetry(attempts, exception)) {
+                if (promise.tracked) PromiseMetrics.attempts(attempts);
                 promise.onError(exception);
+                return;
+            }
+            long delay = policy.delayNanos(attempts);
+            log.debug("attempt {} failed, retry after {} ns: {}", attempts, delay, exception.toString());
+            if (delay == 0) {
+                attempt();
+                return;
+            }
+            Timeout timeout = HashedWheelTimer.shared().newTimeout(this::attempt, delay, TimeUnit.NANOSECONDS);
+            this.timeout = timeout;
+            if (promise.isCompleted()) timeout.cancel();
+        }
+    }
+
+    /** 聚合多个承诺时共享的状态，自身即剩余计数 */
+    private static final class JoinState<R> extends AtomicInteger {
+        private final PromiseImpl<R> joinPromise;
+        private final Object[] values;
+        private final Function<Object[], R> finisher;
+
+        private JoinState(PromiseImpl<R> joinPromise, int size, Function<Object[], R> finisher) {
+            super(size);
+            this.joinPromise = joinPromise;
+            this.values = new Object[size];
+            this.finisher = finisher;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> void subscribe(Promise<V> promise, int index) {
+            JoinContinuation<V> continuation = new JoinContinuation<>(this, index);
+            if (promise instanceof PromiseImpl) ((PromiseImpl<V>) promise).push(continuation);
+            else promise.whenDone(continuation::accept);
+        }
+
+        private void accept(int index, Object value, Throwable exception) {
+            if (exception != null) {
+                joinPromise.onError(exception);
+                return;
+            }
+            values[index] = value;
+            //decrementAndGet 保证最后一个到达的线程能看到所有 values 的写入
+            if (decrementAndGet() == 0) {
+                R result;
+                try {
+                    result = finisher.apply(values);
+                } catch (Throwable finisherException) {
+                    joinPromise.onError(finisherException);
+                    return;
+                }
+                joinPromise.onSuccess(result);
+            }
+        }
+    }
+
+    private static final class JoinContinuation<T> extends Continuation<T> {
+        private final JoinState<?> joinState;
+        private final int index;
+
+        private JoinContinuation(JoinState<?> joinState, int index) {
+            this.joinState = joinState;
+            this.index = index;
+        }
+
+        void accept(T value, Throwable exception) {
+            joinState.accept(index, value, exception);
+        }
+    }
+
+    /**
+     * 异步阶段，由任务依次执行，自身即指向下一阶段的链接。
+     * 任务执行完最后一个阶段时将链接置为 {@link AsyncTask#SEALED}，之后不能再追加。
+     */
+    private static final class AsyncStage extends AtomicReference<AsyncStage> {
+        private final AsyncTask task;
+        private final PromiseImpl<Object> promise;
+        private final Function<Object, Object> function;
+
+        @SuppressWarnings("unchecked")
+        private AsyncStage(AsyncTask task, PromiseImpl<?> promise, Function<Object, Object> function) {
+            this.task = task;
+            this.promise = (PromiseImpl<Object>) promise;
+            this.function = function;
+        }
+
+        /** 关联到承诺，供后续追加及取消时中断 */
+        private void bind() {
+            promise.stage = this;
+            promise.onCancel(interrupt -> task.interrupt(this, interrupt));
+        }
+
+        /**
+         * 追加下一阶段，当前阶段已有下一阶段或任务已结束时失败
+         *
+         * @return true 如果追加成功
+         */
+        private boolean append(PromiseImpl<?> promise, Function<Object, Object> function) {
+            if (get() != null) return false;
+            AsyncStage next = new AsyncStage(task, promise, function);
+            //链接前关联，避免覆盖任务执行该阶段后清除的引用；追加失败时由承诺自己的任务重新关联
+            next.promise.stage = next;
+            if (!compareAndSet(null, next)) return false;
+            next.promise.onCancel(interrupt -> task.interrupt(next, interrupt));
+            return true;
+        }
+    }
+
+    /**
+     * 依次执行多个异步阶段的任务，每个阶段完成对应的承诺，并将结果传给下一阶段。
+     * <p>
+     * 自身状态为：null 未执行转换、正在执行转换的阶段、{@link #INTERRUPTING} 正在中断。
+     * 阶段未开始时取消则跳过执行，执行中取消则按需中断执行线程，结束后不会再中断该线程。
+     */
+    static final class AsyncTask extends AtomicReference<Object> implements Runnable {
+        private static final Object INTERRUPTING = new Object();
+        private static final AsyncStage SEALED = new AsyncStage(null, null, null);
+
+        private final Scheduler scheduler;
+        private AsyncStage head;
+        /** 第一个阶段的输入，在调度前写入 */
+        private Object input;
+        private Throwable inputException;
+        private Thread runner;
+        /** 开启指标时记录的调度时间，用于计算排队等待时间 */
+        private long scheduledAt;
+
+        private AsyncTask(Scheduler scheduler, PromiseImpl<?> promise, Function<Object, Object> function) {
+            this.scheduler = scheduler;
+            this.head = new AsyncStage(this, promise, function);
+            this.head.bind();
+        }
+
+        /** 上游完成时启动，上游失败时不需要调度，直接在当前线程传播异常 */
+        private void start(Object value, Throwable exception) {
+            this.input = value;
+            this.inputException = exception;
+            if (exception == null) schedule();
+            else run();
+        }
+
+        void schedule() {
+            if (PromiseMetrics.isEnabled()) scheduledAt = System.nanoTime();
+            try {
+                scheduler.schedule(this);
+            } catch (RejectedExecutionException exception) {
+                this.inputException = exception;
+                run();
+            }
+        }
+
+        public void run() {
+            if (scheduledAt != 0) PromiseMetrics.queueWait(System.nanoTime() - scheduledAt);
+            runner = Thread.currentThread();
+            AsyncStage stage = head;
+            Object value = input;
+            Throwable exception = inputException;
+            head = null;
+            input = null;
+            try {
+                while (stage != null) {
+                    PromiseImpl<Object> promise = stage.promise;
+                    //已取消的阶段跳过执行
+                    if (!promise.isCompleted()) {
+                        if (exception == null) apply(stage, value);
+                        else promise.onError(exception);
+                    }
+                    //以承诺的实际结果作为下一阶段的输入，与未融合时一致
+                    value = promise.getValue();
+                    exception = promise.getException();
+                    stage = next(stage);
+                    //已有下一阶段或已封闭，不能再追加，解除承诺对阶段的引用
+                    promise.stage = null;
+                }
             } finally {
-                promise.onComplete();
+                runner = null;
             }
-        }).start();
-        return promise;
+        }
+
+        private void apply(AsyncStage stage, Object value) {
+            set(stage);
+            long start = PromiseMetrics.isEnabled() ? System.nanoTime() : 0;
+            try {
+                Object result;
+                PromiseContext previous = PromiseContext.swap(stage.promise.context);
+                try {
+                    result = stage.function.apply(value);
+                } finally {
+                    PromiseContext.swap(previous);
+                    //只统计转换本身，不包括完成承诺时执行的回调
+                    if (start != 0) PromiseMetrics.execution(System.nanoTime() - start);
+                }
+                stage.promise.onSuccess(result);
+            } catch (Throwable exception) {
+                stage.promise.onError(exception);
+            } finally {
+                if (!compareAndSet(stage, null)) {
+                    //正在被中断，等待中断结束后清除中断状态，避免影响线程执行后续任务
+                    while (get() == INTERRUPTING) Thread.onSpinWait();
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        /** @return 下一阶段，没有时封闭链接并返回 null */
+        private static AsyncStage next(AsyncStage stage) {
+            AsyncStage next = stage.get();
+            if (next == null && stage.compareAndSet(null, SEALED)) return null;
+            return stage.get();
+        }
+
+        private void interrupt(AsyncStage stage, boolean interrupt) {
+            if (interrupt && compareAndSet(stage, INTERRUPTING)) {
+                runner.interrupt();
+                set(null);
+            }
+        }
+    }
+
+    /** 线程内的蹦床，依次存放待执行的回调栈、结果和上下文 */
+    private static final class Trampoline {
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        private boolean draining;
+    }
+
+    /** 取消钩子栈节点 */
+    private static final class CancelHook {
+        private final Consumer<Boolean> hook;
+        private CancelHook next;
+
+        private CancelHook(Consumer<Boolean> hook) {
+            this.hook = hook;
+        }
+
+        private static void run(CancelHook head, boolean interrupt) {
+            for (; head != null && head != CLOSED; head = head.next) {
+                try {
+                    head.hook.accept(interrupt);
+                } catch (Throwable exception) {
+                    PromiseMetrics.callbackException();
+                    log.warn("cancel hook invoke exception", exception);
+                }
+            }
+        }
+    }
+
+    private static final class CancelContinuation<T> extends Continuation<T> {
+        private final CancelHook hooks;
+        private final boolean interrupt;
+
+        private CancelContinuation(CancelHook hooks, boolean interrupt) {
+            this.hooks = hooks;
+            this.interrupt = interrupt;
+        }
+
+        void accept(T value, Throwable exception) {
+            CancelHook.run(hooks, interrupt);
+        }
+    }
+
+    /** 结果为 null 或者异常时的状态 */
+    private static final class Outcome {
+        private final Throwable exception;
+        /** 取消时是否中断正在执行的任务 */
+        private final boolean interrupt;
+        /** 由 {@link #cancel(boolean)} 或 {@link #orTimeout(Duration)} 的定时器完成 */
+        private final boolean cancellation;
+
+        private Outcome(Throwable exception) {
+            this(exception, false, false);
+        }
+
+        private Outcome(Throwable exception, boolean interrupt, boolean cancellation) {
+            this.exception = exception;
+            this.interrupt = interrupt;
+            this.cancellation = cancellation;
+        }
+    }
+
+    /** 回调栈节点，回调本身即节点，不再额外分配列表节点 */
+    private abstract static class Continuation<T> {
+        private Continuation<T> next;
+
+        abstract void accept(T value, Throwable exception);
+    }
+
+    private static final class SuccessContinuation<T> extends Continuation<T> {
+        private final Consumer<T> consumer;
+
+        private SuccessContinuation(Consumer<T> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(T value, Throwable exception) {
+            if (exception == null) consumer.accept(value);
+        }
+    }
+
+    private static final class ErrorContinuation<T> extends Continuation<T> {
+        private final Consumer<Throwable> consumer;
+
+        private ErrorContinuation(Consumer<Throwable> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(T value, Throwable exception) {
+            if (exception != null) consumer.accept(exception);
+        }
+    }
+
+    private static final class CompleteContinuation<T> extends Continuation<T> {
+        private final Runnable runnable;
+
+        private CompleteContinuation(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        void accept(T value, Throwable exception) {
+            runnable.run();
+        }
+    }
+
+    private static final class DoneContinuation<T> extends Continuation<T> {
+        private final BiConsumer<? super T, ? super Throwable> consumer;
+
+        private DoneContinuation(BiConsumer<? super T, ? super Throwable> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(T value, Throwable exception) {
+            consumer.accept(value, exception);
+        }
     }
 }
@@ -1,38 +1,79 @@
 package com.github.peacetrue.learn.reactive.promise;
 
-import com.github.peacetrue.learn.reactive.callback.CallbackHandler;
-import com.github.peacetrue.learn.reactive.callback.CallbackResult;
+import com.github.peacetrue.learn.reactive.flow.Subscriptions;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
+ * 冷启动、多播、缓存结果的承诺。
+ * <p>
+ * 创建时不执行任务，首次订阅或调用 {@link #connect()} 时启动任务（包括上游任务），且只启动一次；
+ * 执行期间到达的订阅者只注册回调，不会再启动任务；完成后到达的订阅者直接收到缓存的结果。
+ *
  * @author : xiayx
  * @since : 2020-12-20 21:00
  **/
 @Slf4j
-public class PromiseProcess<T> extends CallbackResult<T> implements Promise<T>, Flow.Processor<T, T>, CallbackHandler<T> {
+public class PromiseProcess<T> extends PromiseImpl<T> implements Flow.Processor<T, T> {
+
+    private final AtomicBoolean connected = new AtomicBoolean();
+    /** 连接时需要执行的任务，可能是启动自身的任务，也可能是连接上游 */
+    private volatile Runnable source;
+
+    /**
+     * 启动任务，多次调用只有第一次生效
+     *
+     * @return true 如果本次调用启动了任务
+     */
+    public boolean connect() {
+        if (!connected.compareAndSet(false, true)) return false;
+        Runnable source = this.source;
+        if (source != null) source.run();
+        return true;
+    }
+
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    private static void connect(Promise<?> promise) {
+        if (promise instanceof PromiseProcess) ((PromiseProcess<?>) promise).connect();
+    }
+
+    //-----------------CallbackResult<T>------------------------
+    /** 等待前先启动任务，否则未连接的承诺不会完成 */
+    @Override
+    public T join() {
+        connect();
+        return super.join();
+    }
 
-    private final List<Consumer<T>> successConsumers = new LinkedList<>();
-    private final List<Consumer<Throwable>> errorConsumers = new LinkedList<>();
-    private final List<Runnable> completeRunnables = new LinkedList<>();
-    private List<Thread> threads;
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        connect();
+        return super.get(timeout, unit);
+    }
 
     //-----------------Publisher<R>------------------------
     @Override
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(Subscriptions.EMPTY);
         this
                 .whenSuccess(subscriber::onNext)
                 .whenError(subscriber::onError)
                 .whenComplete(subscriber::onComplete);
-        this.threads.forEach(Thread::start);
+        this.connect();
     }
 
     //-----------------Subscriber<R>------------------------
@@ -45,120 +86,96 @@ public class PromiseProcess<T> extends CallbackResult<T> implements Promise<T>,
         this.onSuccess(item);
     }
 
-    public void onSuccess(T result) {
-        this.setValue(result);
-        this.setCompleted(true);
-        for (Consumer<T> successConsumer : successConsumers) {
-            try {
-                successConsumer.accept(getValue());
-            } catch (Throwable exception) {
-                log.warn("success consumer invoke exception", exception);
-            }
-        }
+    //-----------------Promise<R>------------------------
+    @Override
+    protected <V> PromiseProcess<V> init() {
+        return new PromiseProcess<>();
     }
 
-    public void onError(Throwable exception) {
-        this.setException(exception);
-        this.setCompleted(true);
-        for (Consumer<Throwable> errorConsumer : errorConsumers) {
-            try {
-                errorConsumer.accept(getException());
-            } catch (Throwable consumerException) {
-                log.warn("error consumer invoke exception", consumerException);
-            }
-        }
+    @Override
+    public PromiseProcess<T> whenSuccess(Consumer<T> consumer) {
+        super.whenSuccess(consumer);
+        return this;
     }
 
-    public void onComplete() {
-        this.setCompleted(true);
-        for (Runnable completeRunnable : completeRunnables) {
-            try {
-                completeRunnable.run();
-            } catch (Throwable exception) {
-                log.warn("complete runnable invoke exception", exception);
-            }
-        }
+    @Override
+    public PromiseProcess<T> whenError(Consumer<Throwable> consumer) {
+        super.whenError(consumer);
+        return this;
     }
 
-
-    //-----------------Promise<R>------------------------
     @Override
-    public PromiseProcess<T> whenSuccess(Consumer<T> consumer) {
-        this.successConsumers.add(consumer);
+    public PromiseProcess<T> whenComplete(Runnable runnable) {
+        super.whenComplete(runnable);
         return this;
     }
 
     @Override
-    public PromiseProcess<T> whenError(Consumer<Throwable> consumer) {
-        this.errorConsumers.add(consumer);
+    public PromiseProcess<T> orTimeout(Duration timeout) {
+        super.orTimeout(timeout);
         return this;
     }
 
     @Override
-    public PromiseProcess<T> whenComplete(Runnable runnable) {
-        this.completeRunnables.add(runnable);
+    public PromiseProcess<T> completeOnTimeout(T value, Duration timeout) {
+        super.completeOnTimeout(value, timeout);
         return this;
     }
 
     @Override
     public <V> PromiseProcess<Tuple2<T, V>> zip(Promise<V> promise) {
-        PromiseProcess<V> promiseImpl = (PromiseProcess<V>) promise;
-        PromiseProcess<Tuple2<T, V>> zipPromise = new PromiseProcess<>();
-        zipPromise.threads = new ArrayList<>(this.threads.size() + promiseImpl.threads.size());
-        zipPromise.threads.addAll(this.threads);
-        zipPromise.threads.addAll(promiseImpl.threads);
-
-        this.whenSuccess(t -> {
-            if (promiseImpl.isSuccess()) zipPromise.onSuccess(new Tuple2<>(t, promiseImpl.getValue()));
-        });
-        promiseImpl.whenSuccess(t -> {
-            if (this.isSuccess()) zipPromise.onSuccess(new Tuple2<>(this.getValue(), t));
-        });
+        PromiseProcess<Tuple2<T, V>> zipPromise = (PromiseProcess<Tuple2<T, V>>) super.zip(promise);
+        zipPromise.source = () -> {
+            this.connect();
+            connect(promise);
+        };
+        return zipPromise;
+    }
 
-        this.whenError(exception -> {
-            if (!zipPromise.isCompleted()) zipPromise.onError(exception);
-        });
-        promiseImpl.whenError(exception -> {
-            if (!zipPromise.isCompleted()) zipPromise.onError(exception);
-        });
+    @Override
+    public <V> PromiseProcess<V> thenApply(Function<T, V> function) {
+        PromiseProcess<V> promise = (PromiseProcess<V>) super.thenApply(function);
+        promise.source = this::connect;
+        return promise;
+    }
 
-        this.whenComplete(() -> {
-            if (promiseImpl.isCompleted()) zipPromise.onComplete();
-        });
-        promiseImpl.whenComplete(() -> {
-            if (this.isCompleted()) zipPromise.onComplete();
+    @Override
+    public <V> PromiseProcess<V> thenCompose(Function<T, ? extends Promise<V>> function) {
+        PromiseProcess<V> promise = (PromiseProcess<V>) super.thenCompose(value -> {
+            Promise<V> inner = function.apply(value);
+            connect(inner);
+            return inner;
         });
+        promise.source = this::connect;
+        return promise;
+    }
 
-        return zipPromise;
+    @Override
+    public <V> PromiseProcess<V> flatMap(Function<T, ? extends Promise<V>> function) {
+        return thenCompose(function);
     }
 
+    @Override
     public <V> PromiseProcess<V> thenApplyAsync(Function<T, V> function) {
-        PromiseProcess<V> promise = new PromiseProcess<>();
-        promise.threads = this.threads;
-        this.successConsumers.add(value -> {
-            invoke(promise, () -> function.apply(value))
-                    .threads.forEach(Thread::start);
-        });
-        this.errorConsumers.add(promise::onError);
+        return thenApplyAsync(function, Schedulers.defaults());
+    }
+
+    @Override
+    public <V> PromiseProcess<V> thenApplyAsync(Function<T, V> function, Scheduler scheduler) {
+        PromiseProcess<V> promise = (PromiseProcess<V>) super.thenApplyAsync(function, scheduler);
+        promise.source = this::connect;
         return promise;
     }
 
     public static <T> PromiseProcess<T> invoke(Supplier<T> action) {
-        return invoke(new PromiseProcess<>(), action);
-    }
-
-    private static <T> PromiseProcess<T> invoke(PromiseProcess<T> promise, Supplier<T> action) {
-        promise.threads = Collections.singletonList(new Thread(() -> {
-            try {
-                promise.onNext(action.get());
-            } catch (Throwable exception) {
-                promise.onError(exception);
-            } finally {
-                promise.onComplete();
-            }
-        }));
-        return promise;
+        return invoke(action, Schedulers.defaults());
     }
 
+    public static <T> PromiseProcess<T> invoke(Supplier<T> action, Scheduler scheduler) {
+        PromiseProcess<T> promise = new PromiseProcess<>();
+        //提前创建任务，连接前追加的异步转换都会融合到该任务中
+        promise.source = prepare(promise, action, scheduler)::schedule;
+        return promise;
+    }
 
 }
@@ -0,0 +1,247 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * 结构化并发的作用域，拥有在其中派生的所有承诺。
+ * <p>
+ * 同时执行的任务数不超过 maxConcurrency，超出的任务排队等待；
+ * 任一任务失败时按 {@link OnFailure} 取消其他任务或继续执行并收集所有异常；
+ * 关闭时取消所有未完成的承诺，并等待正在执行的任务退出，因此任务不会在作用域关闭后继续执行。
+ * <pre>{@code
+ * try (PromiseScope scope = new PromiseScope(4)) {
+ *     PromiseImpl<String> rice = scope.fork(mealProcess::cookRice);
+ *     PromiseImpl<String> food = scope.fork(mealProcess::buyFood);
+ *     scope.completion().join();
+ * }
+ * }</pre>
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 02:20
+ **/
+public class PromiseScope implements AutoCloseable {
+
+    /** 任务失败时的处理方式，取消不视为失败 */
+    public enum OnFailure {
+        /** 取消其他未完成的任务，之后派生的承诺直接取消 */
+        CANCEL,
+        /** 继续执行其他任务，收集所有异常 */
+        COLLECT
+    }
+
+    private final Scheduler scheduler;
+    private final int maxConcurrency;
+    private final OnFailure onFailure;
+
+    /** 以下字段都在锁内访问 */
+    private final Set<PromiseImpl<?>> active = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ArrayDeque<Fork<?>> pending = new ArrayDeque<>();
+    private final List<Throwable> failures = new ArrayList<>();
+    private List<PromiseImpl<Void>> waiters = new ArrayList<>();
+    private int forked;
+    /** 占用的并发数 */
+    private int running;
+    /** 正在执行的任务数，关闭时等待归零 */
+    private int executing;
+    private boolean cancelling;
+    private boolean closed;
+
+    public PromiseScope(int maxConcurrency) {
+        this(Schedulers.defaults(), maxConcurrency, OnFailure.CANCEL);
+    }
+
+    /**
+     * @param scheduler      执行任务的调度器
+     * @param maxConcurrency 最大并发数
+     * @param onFailure      任务失败时的处理方式
+     */
+    public PromiseScope(Scheduler scheduler, int maxConcurrency, OnFailure onFailure) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be > 0");
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.maxConcurrency = maxConcurrency;
+        this.onFailure = Objects.requireNonNull(onFailure);
+    }
+
+    /**
+     * 在作用域中派生任务，并发数已满时排队等待
+     *
+     * @param action 任务
+     * @return 任务的承诺，取消时跳过或中断任务
+     * @throws IllegalStateException 作用域已关闭
+     */
+    public <T> PromiseImpl<T> fork(Supplier<T> action) {
+        Objects.requireNonNull(action);
+        PromiseImpl<T> promise = new PromiseImpl<>();
+        Fork<T> fork = new Fork<>(promise, action);
+        boolean start = false, cancel;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("scope closed");
+            forked++;
+            active.add(promise);
+            cancel = cancelling;
+            if (!cancel) {
+                if (running < maxConcurrency) {
+                    running++;
+                    start = fork.started = true;
+                } else {
+                    pending.add(fork);
+                }
+            }
+        }
+        promise.whenDone((value, exception) -> done(fork, exception));
+        if (cancel) promise.cancel(false);
+        else if (start) fork.start();
+        return promise;
+    }
+
+    private void done(Fork<?> fork, Throwable exception) {
+        Fork<?> next = null;
+        List<PromiseImpl<?>> siblings = Collections.emptyList();
+        List<PromiseImpl<Void>> completed = null;
+        synchronized (this) {
+            active.remove(fork.promise);
+            if (exception != null && !(exception instanceof CancellationException)) {
+                failures.add(exception);
+                if (onFailure == OnFailure.CANCEL && !cancelling) {
+                    cancelling = true;
+                    siblings = new ArrayList<>(active);
+                    //排队的任务随其他任务一起取消，不再占用并发数开始执行
+                    pending.clear();
+                }
+            }
+            if (fork.started) {
+                running--;
+                next = cancelling ? null : pending.poll();
+                if (next != null) {
+                    running++;
+                    next.started = true;
+                }
+            } else {
+                pending.remove(fork);
+            }
+            if (active.isEmpty() && !waiters.isEmpty()) {
+                completed = waiters;
+                waiters = new ArrayList<>();
+            }
+        }
+        siblings.forEach(sibling -> sibling.cancel(true));
+        if (next != null) next.start();
+        if (completed != null) completed.forEach(this::complete);
+    }
+
+    /**
+     * 所有已派生的承诺完成时完成。
+     * 没有失败时成功；{@link OnFailure#CANCEL} 时以第一个异常失败；
+     * {@link OnFailure#COLLECT} 时以 {@link IllegalStateException} 失败，所有异常作为其 suppressed。
+     *
+     * @return 汇总的承诺
+     */
+    public PromiseImpl<Void> completion() {
+        PromiseImpl<Void> completion = new PromiseImpl<>();
+        synchronized (this) {
+            if (!active.isEmpty()) {
+                waiters.add(completion);
+                return completion;
+            }
+        }
+        complete(completion);
+        return completion;
+    }
+
+    private void complete(PromiseImpl<Void> completion) {
+        Throwable failure;
+        synchronized (this) {
+            if (failures.isEmpty()) {
+                failure = null;
+            } else if (onFailure == OnFailure.CANCEL) {
+                failure = failures.get(0);
+            } else {
+                failure = new IllegalStateException(failures.size() + " of " + forked + " forked promises failed");
+                failures.forEach(failure::addSuppressed);
+            }
+        }
+        if (failure == null) completion.onSuccess(null);
+        else completion.onError(failure);
+    }
+
+    /** @return 已发生的异常，不包括取消 */
+    public synchronized List<Throwable> getFailures() {
+        return new ArrayList<>(failures);
+    }
+
+    /** @return 未完成的承诺数，包括排队等待的 */
+    public synchronized int getActive() {
+        return active.size();
+    }
+
+    /**
+     * 关闭作用域：不再接受新任务，取消所有未完成的承诺并中断正在执行的任务，等待其退出后返回。
+     * 不能在作用域派生的任务中调用，否则会一直等待自身退出。
+     */
+    @Override
+    public void close() {
+        List<PromiseImpl<?>> unfinished;
+        synchronized (this) {
+            closed = true;
+            unfinished = new ArrayList<>(active);
+        }
+        unfinished.forEach(promise -> promise.cancel(true));
+        boolean interrupted = false;
+        synchronized (this) {
+            while (executing > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /** 作用域关闭后不再开始执行任务 */
+    private synchronized void enter() {
+        if (closed) throw new CancellationException("scope closed");
+        executing++;
+    }
+
+    private synchronized void exit() {
+        if (--executing == 0) notifyAll();
+    }
+
+    private final class Fork<T> {
+        private final PromiseImpl<T> promise;
+        private final Supplier<T> action;
+        /** 是否占用了并发数，只在锁内访问 */
+        private boolean started;
+
+        private Fork(PromiseImpl<T> promise, Supplier<T> action) {
+            this.promise = promise;
+            this.action = action;
+        }
+
+        /** 取得并发数后执行，排队期间已取消的不再调度 */
+        private void start() {
+            if (promise.isCompleted()) return;
+            PromiseImpl.invoke(promise, () -> {
+                enter();
+                try {
+                    return action.get();
+                } finally {
+                    exit();
+                }
+            }, scheduler);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * 重试策略，不可变，每个设置方法返回新的策略。
+ * <p>
+ * 第 n 次重试前等待 min(maxDelay, initialDelay * multiplier<sup>n-1</sup>)，
+ * 再随机减去其中 jitter 比例的时长，避免大量调用在同一时刻重试。
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 00:10
+ * @see PromiseImpl#retry(java.util.function.Supplier, RetryPolicy)
+ **/
+@Getter
+@ToString
+public class RetryPolicy {
+
+    /** 默认不重试取消的承诺 */
+    private static final Predicate<Throwable> DEFAULT_RETRY_ON = exception -> !(exception instanceof CancellationException);
+
+    /** 最多尝试次数，包括第一次 */
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    /** 随机扣减的比例，0 表示不随机，1 表示在 0 到计算时长之间随机 */
+    private final double jitter;
+    private final Predicate<Throwable> retryOn;
+
+    private RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay, double multiplier, double jitter,
+                        Predicate<Throwable> retryOn) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * @param maxAttempts 最多尝试次数，包括第一次
+     * @return 立即重试、重试除取消外所有异常的策略
+     */
+    public static RetryPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be > 0");
+        return new RetryPolicy(maxAttempts, Duration.ZERO, Duration.ZERO, 1, 0, DEFAULT_RETRY_ON);
+    }
+
+    /**
+     * 指数退避
+     *
+     * @param initialDelay 第一次重试前的等待时长
+     * @param maxDelay     最长等待时长
+     * @param multiplier   每次重试等待时长的倍数，不小于 1
+     * @return 新的策略
+     */
+    public RetryPolicy backoff(Duration initialDelay, Duration maxDelay, double multiplier) {
+        if (initialDelay.isNegative()) throw new IllegalArgumentException("initialDelay must not be negative");
+        if (maxDelay.compareTo(initialDelay) < 0) throw new IllegalArgumentException("maxDelay must be >= initialDelay");
+        if (!(multiplier >= 1)) throw new IllegalArgumentException("multiplier must be >= 1");
+        return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, retryOn);
+    }
+
+    /** 固定间隔 */
+    public RetryPolicy fixedDelay(Duration delay) {
+        return backoff(delay, delay, 1);
+    }
+
+    public RetryPolicy jitter(double jitter) {
+        if (!(jitter >= 0 && jitter <= 1)) throw new IllegalArgumentException("jitter must be in [0, 1]");
+        return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, retryOn);
+    }
+
+    /** 只重试满足条件的异常，取代之前设置的条件 */
+    public RetryPolicy retryOn(Predicate<Throwable> retryOn) {
+        return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, Objects.requireNonNull(retryOn));
+    }
+
+    /** 只重试指定类型的异常，取代之前设置的条件 */
+    @SafeVarargs
+    public final RetryPolicy retryOn(Class<? extends Throwable>... types) {
+        Class<? extends Throwable>[] copy = types.clone();
+        return retryOn(exception -> {
+            for (Class<? extends Throwable> type : copy) if (type.isInstance(exception)) return true;
+            return false;
+        });
+    }
+
+    /**
+     * @param attempts  已尝试次数
+     * @param exception 本次尝试的异常
+     * @return true 如果需要再次尝试
+     */
+    boolean shouldRetry(int attempts, Throwable exception) {
+        return attempts < maxAttempts && retryOn.test(exception);
+    }
+
+    /**
+     * @param retry 第几次重试，从 1 开始
+     * @return 重试前的等待纳秒数
+     */
+    long delayNanos(int retry) {
+        long initial = initialDelay.toNanos(), max = maxDelay.toNanos();
+        if (max == 0) return 0;
+        double delay = Math.min(max, initial * Math.pow(multiplier, retry - 1));
+        if (jitter > 0) delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        return (long) delay;
+    }
+}
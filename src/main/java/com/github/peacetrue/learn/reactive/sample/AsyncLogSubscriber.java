@@ -0,0 +1,195 @@
+package com.github.peacetrue.learn.reactive.sample;
+
+import com.github.peacetrue.learn.reactive.flow.SpscArrayQueue;
+import com.github.peacetrue.learn.reactive.scheduler.NamedThreadFactory;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步日志订阅者。
+ * <p>
+ * 发布线程只负责采样、限速并将数据放入有界环形缓冲区，缓冲区满时丢弃数据；
+ * 后台线程批量取出数据，格式化后一次写出，发布线程不再承担格式化和输出的开销。
+ * 后台线程空闲时挂起，由发布线程放入数据后唤醒；完成、失败或取消订阅时写出剩余数据后退出。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 17:40
+ **/
+public class AsyncLogSubscriber<T> extends LogSubscriberImpl<T> {
+
+    private static final ThreadFactory THREAD_FACTORY = new NamedThreadFactory("async-log");
+    /**
+     * 后台线程无数据时的最长等待时间，正常由发布线程唤醒；
+     * 发布线程以 release 写入缓冲区后读取 {@link #waiting} 可能重排而错过唤醒，此时最多延迟该时间写出
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SpscArrayQueue<T> queue;
+    private final int batchSize;
+    /** 每 sampleRate 条数据输出 1 条 */
+    private final int sampleRate;
+    /** 每秒最多输出的数据量，0 表示不限 */
+    private final long maxPerSecond;
+
+    /** 以下字段只在发布线程上访问 */
+    private long seen;
+    private long windowStart;
+    private long windowCount;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private Flow.Subscription subscription;
+    private Thread writer;
+    private volatile boolean waiting;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+
+    public AsyncLogSubscriber(long count) {
+        this(count, 1024, 64, 1, 0);
+    }
+
+    /**
+     * @param count        每批请求的数据量
+     * @param bufferSize   缓冲区大小
+     * @param batchSize    每次写出的最大数据量
+     * @param sampleRate   采样率，每 sampleRate 条输出 1 条
+     * @param maxPerSecond 每秒最多输出的数据量，0 表示不限
+     */
+    public AsyncLogSubscriber(long count, int bufferSize, int batchSize, int sampleRate, long maxPerSecond) {
+        super(count);
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be > 0");
+        if (sampleRate < 1) throw new IllegalArgumentException("sampleRate must be > 0");
+        if (maxPerSecond < 0) throw new IllegalArgumentException("maxPerSecond must be >= 0");
+        this.queue = new SpscArrayQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (writer == null) {
+            writer = THREAD_FACTORY.newThread(this::drain);
+            writer.start();
+        }
+        super.onSubscribe(subscription);
+    }
+
+    @Override
+    protected void write(T t) {
+        if (sampleRate > 1 && ++seen % sampleRate != 0) {
+            sampled.incrementAndGet();
+            return;
+        }
+        if (maxPerSecond > 0 && !acquire()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(t)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (waiting) LockSupport.unpark(writer);
+    }
+
+    /** 固定一秒窗口的限速 */
+    private boolean acquire() {
+        long now = System.nanoTime();
+        if (windowCount == 0 || now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        return ++windowCount <= maxPerSecond;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        terminate();
+    }
+
+    /** 取消订阅，后台线程写出已缓冲的数据后退出 */
+    public void cancel() {
+        if (subscription != null) subscription.cancel();
+        cancelled = true;
+        terminate();
+    }
+
+    private void terminate() {
+        done = true;
+        if (writer != null) LockSupport.unpark(writer);
+    }
+
+    /** 后台线程：批量写出，直到终止且缓冲区为空 */
+    private void drain() {
+        StringBuilder builder = new StringBuilder();
+        for (; ; ) {
+            boolean terminated = done;
+            int size = writeBatch(builder);
+            if (size > 0) continue;
+            if (terminated) {
+                if (cancelled) log.info("cancel");
+                else if (error == null) log.info("complete");
+                else log.warn("error: {}", error.getMessage());
+                return;
+            }
+            waiting = true;
+            if (queue.isEmpty() && !done) LockSupport.parkNanos(this, PARK_NANOS);
+            waiting = false;
+        }
+    }
+
+    private int writeBatch(StringBuilder builder) {
+        builder.setLength(0);
+        int size = 0;
+        T item;
+        while (size < batchSize && (item = queue.poll()) != null) {
+            builder.append("\nitem: ").append(item);
+            size++;
+        }
+        if (size > 0) {
+            log.info("{} items:{}", size, builder);
+            written.addAndGet(size);
+        }
+        return size;
+    }
+
+    /**
+     * 等待后台线程写出所有数据
+     *
+     * @return 在超时前写出完毕返回 true
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (writer == null) return false;
+        writer.join(Math.max(1, unit.toMillis(timeout)));
+        return !writer.isAlive();
+    }
+
+    /** @return 因缓冲区满或超出限速而丢弃的数据量 */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** @return 因采样而跳过的数据量 */
+    public long getSampled() {
+        return sampled.get();
+    }
+
+    /** @return 已写出的数据量 */
+    public long getWritten() {
+        return written.get();
+    }
+}
@@ -4,18 +4,37 @@ package com.github.peacetrue.learn.reactive.sample;
 import java.util.concurrent.Flow;
 
 /**
+ * 每次请求 count 条数据，处理完毕后再请求下一批
+ *
  * @author : xiayx
  * @since : 2020-12-21 14:59
  **/
 public class LogSubscriberImpl<T> implements LogSubscriber<T> {
 
     private final long count;
+    private Flow.Subscription subscription;
+    /** 当前批次已接收的数据量 */
+    private long received;
 
     public LogSubscriberImpl(long count) {
         this.count = count;
     }
 
     public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
         subscription.request(count);
     }
+
+    public void onNext(T t) {
+        write(t);
+        if (count != Long.MAX_VALUE && ++received == count) {
+            received = 0;
+            subscription.request(count);
+        }
+    }
+
+    /** 输出数据，子类可覆盖为其他输出方式 */
+    protected void write(T t) {
+        LogSubscriber.super.onNext(t);
+    }
 }
@@ -1,10 +1,12 @@
 package com.github.peacetrue.learn.reactive.sample;
 
+import com.github.peacetrue.learn.reactive.flow.Subscriptions;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author : xiayx
@@ -20,36 +22,68 @@ public class SamplePublisher<T> implements Flow.Publisher<T> {
     }
 
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
-        subscriber.onSubscribe(new Flow.Subscription() {
-            private int fromIndex = 0;
+        subscriber.onSubscribe(new ListSubscription<>(subscriber, items));
+    }
 
-            public void request(long l) {
-                if (l < 0) {
-                    subscriber.onError(new IllegalStateException("request count < 0, except > 0"));
-                    return;
-                }
+    /**
+     * 列表订阅，自身即未满足的请求数量。
+     * <p>
+     * 请求数量从 0 增加的线程负责发布数据，其他线程（包括在 onNext 中再次请求的订阅者）只累加请求数量，
+     * 由发布数据的线程在循环中继续发布，因此不会递归，栈深度与数据量和请求方式无关。
+     */
+    private static class ListSubscription<T> extends AtomicLong implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final List<T> items;
+        /** 下一个待发布数据的下标，只在发布数据的线程上访问 */
+        private int index;
+        private volatile boolean cancelled;
+
+        private ListSubscription(Flow.Subscriber<? super T> subscriber, List<T> items) {
+            this.subscriber = subscriber;
+            this.items = items;
+        }
 
+        public void request(long n) {
+            IllegalArgumentException exception = Subscriptions.validate(n);
+            if (exception != null) {
+                cancelled = true;
+                subscriber.onError(exception);
+                return;
+            }
+            if (Subscriptions.addCap(this, n) == 0) drain(n);
+        }
+
+        private void drain(long requested) {
+            int index = this.index, size = items.size();
+            long emitted = 0;
+            for (; ; ) {
                 //请求一批数据
-                int endCount = Math.min(items.size(), fromIndex + (int) l);
-                for (int i = fromIndex; i < endCount; i++) {
-                    subscriber.onNext(items.get(i));
+                while (emitted != requested && index != size) {
+                    if (cancelled) return;
+                    subscriber.onNext(items.get(index++));
+                    emitted++;
                 }
 
                 //所有数据处理完毕
-                if (endCount >= items.size()) {
-                    subscriber.onComplete();
+                if (index == size) {
+                    if (!cancelled) subscriber.onComplete();
                     return;
                 }
 
-                //请求下一批数据
-                fromIndex = endCount;
-                subscriber.onSubscribe(this);
+                //发布期间有新的请求则继续，否则退出等待下一次请求
+                requested = get();
+                if (requested == emitted) {
+                    this.index = index;
+                    requested = Subscriptions.produced(this, emitted);
+                    if (requested == 0) return;
+                    emitted = 0;
+                }
             }
+        }
 
-
-            public void cancel() {
-                //没用到线程池，此处无用
-            }
-        });
+        public void cancel() {
+            cancelled = true;
+        }
     }
 }
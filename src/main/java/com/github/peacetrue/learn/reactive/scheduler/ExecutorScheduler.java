@@ -0,0 +1,29 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 基于线程池的调度器
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:31
+ **/
+public class ExecutorScheduler implements Scheduler {
+
+    private final ExecutorService executorService;
+
+    public ExecutorScheduler(ExecutorService executorService) {
+        this.executorService = Objects.requireNonNull(executorService);
+    }
+
+    @Override
+    public void schedule(Runnable task) {
+        executorService.execute(task);
+    }
+
+    @Override
+    public void dispose() {
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+/**
+ * 直接在调用者线程上执行任务
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:26
+ **/
+public class ImmediateScheduler implements Scheduler {
+
+    public static final ImmediateScheduler INSTANCE = new ImmediateScheduler();
+
+    @Override
+    public void schedule(Runnable task) {
+        task.run();
+    }
+}
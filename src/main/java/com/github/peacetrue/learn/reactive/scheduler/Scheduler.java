@@ -0,0 +1,31 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+/**
+ * 调度器，决定任务在哪个线程上执行
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:12
+ **/
+public interface Scheduler {
+
+    /**
+     * 调度一个任务，不保证多个任务之间的执行顺序
+     *
+     * @param task 任务
+     * @throws java.util.concurrent.RejectedExecutionException 调度器已关闭或无法接收任务
+     */
+    void schedule(Runnable task);
+
+    /**
+     * 创建一个工作者，同一工作者上的任务按提交顺序串行执行
+     *
+     * @return 工作者
+     */
+    default Worker createWorker() {
+        return new SerialWorker(this);
+    }
+
+    /** 释放调度器占用的线程 */
+    default void dispose() {
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度器工厂。
+ * <p>
+ * 默认调度器可通过系统属性配置：
+ * <ul>
+ *     <li>{@value #TYPE_PROPERTY}：bounded（默认）、single、immediate、thread、virtual</li>
+ *     <li>{@value #PARALLELISM_PROPERTY}：bounded 调度器的线程数，默认为 CPU 核数</li>
+ * </ul>
+ * 也可通过 {@link #setDefaults(Scheduler)} 直接替换。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:40
+ **/
+@Slf4j
+public abstract class Schedulers {
+
+    public static final String TYPE_PROPERTY = "learn.reactive.scheduler";
+    public static final String PARALLELISM_PROPERTY = "learn.reactive.scheduler.parallelism";
+
+    private static volatile Scheduler defaults;
+
+    /** @return 默认调度器，首次使用时按系统属性创建 */
+    public static Scheduler defaults() {
+        Scheduler scheduler = defaults;
+        if (scheduler != null) return scheduler;
+        synchronized (Schedulers.class) {
+            if (defaults == null) defaults = create(System.getProperty(TYPE_PROPERTY, "bounded"));
+            return defaults;
+        }
+    }
+
+    public static void setDefaults(Scheduler scheduler) {
+        defaults = Objects.requireNonNull(scheduler);
+    }
+
+    private static Scheduler create(String type) {
+        switch (type) {
+            case "single":
+                return newSingle("single");
+            case "immediate":
+                return immediate();
+            case "thread":
+                return newThread("thread");
+            case "virtual":
+                return newVirtual("virtual");
+            case "bounded":
+                return newBounded("bounded", Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+            default:
+                log.warn("unknown scheduler type '{}', use bounded", type);
+                return create("bounded");
+        }
+    }
+
+    /** @return 在调用者线程上执行的调度器 */
+    public static Scheduler immediate() {
+        return ImmediateScheduler.INSTANCE;
+    }
+
+    /** @return 每个任务新建一个线程的调度器 */
+    public static Scheduler newThread(String name) {
+        return new ThreadPerTaskScheduler(new NamedThreadFactory(name));
+    }
+
+    /**
+     * 每个任务新建一个虚拟线程，适用于大量阻塞等待的任务。
+     * 当前 JDK 不支持虚拟线程时，退化为每个任务新建一个平台线程。
+     *
+     * @return 虚拟线程调度器
+     */
+    public static Scheduler newVirtual(String name) {
+        ThreadFactory threadFactory = VirtualThreads.newThreadFactory(name);
+        if (threadFactory != null) return new ThreadPerTaskScheduler(threadFactory);
+        log.warn("virtual thread is not supported by java {}, fallback to platform thread", System.getProperty("java.version"));
+        return newThread(name);
+    }
+
+    /** @return 单线程调度器 */
+    public static Scheduler newSingle(String name) {
+        return newBounded(name, 1);
+    }
+
+    /** @return 固定线程数的调度器，线程空闲 60 秒后回收 */
+    public static Scheduler newBounded(String name, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be > 0");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(name)
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return new ExecutorScheduler(executor);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于调度器的串行工作者。
+ * 任务先进入队列，只有一个排空任务在调度器上运行，同一时刻至多占用一个线程。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:20
+ **/
+@Slf4j
+public class SerialWorker implements Worker, Runnable {
+
+    private final Scheduler scheduler;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean disposed;
+
+    public SerialWorker(Scheduler scheduler) {
+        this.scheduler = Objects.requireNonNull(scheduler);
+    }
+
+    @Override
+    public void schedule(Runnable task) {
+        if (disposed) return;
+        tasks.offer(task);
+        if (wip.getAndIncrement() == 0) scheduler.schedule(this);
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        do {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                if (disposed) {
+                    tasks.clear();
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (Throwable exception) {
+                    log.warn("worker task invoke exception", exception);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 每个任务新建一个线程，即最初 {@code new Thread(...).start()} 的做法，仅作对比使用
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:28
+ **/
+public class ThreadPerTaskScheduler implements Scheduler {
+
+    private final ThreadFactory threadFactory;
+
+    public ThreadPerTaskScheduler(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void schedule(Runnable task) {
+        threadFactory.newThread(task).start();
+    }
+}
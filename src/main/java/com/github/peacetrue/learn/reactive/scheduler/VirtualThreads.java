@@ -0,0 +1,54 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程支持，JDK 21 之前的版本不可用。
+ * 通过反射创建虚拟线程工厂，源码仍能在较低版本的 JDK 上编译。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 10:40
+ **/
+@Slf4j
+public abstract class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private static Method findOfVirtual() {
+        try {
+            Method method = Thread.class.getMethod("ofVirtual");
+            //JDK 19、20 中为预览特性，未开启时调用会抛出异常
+            method.invoke(null);
+            return method;
+        } catch (Throwable exception) {
+            return null;
+        }
+    }
+
+    /** @return 当前 JDK 是否支持虚拟线程 */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 创建以 name-序号 命名的虚拟线程工厂
+     *
+     * @param name 线程名前缀
+     * @return 虚拟线程工厂，不支持时返回 null
+     */
+    public static ThreadFactory newThreadFactory(String name) {
+        if (OF_VIRTUAL == null) return null;
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            log.warn("create virtual thread factory exception", exception);
+            return null;
+        }
+    }
+}
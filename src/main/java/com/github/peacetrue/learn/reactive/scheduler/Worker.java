@@ -0,0 +1,17 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+/**
+ * 工作者，按提交顺序串行执行任务
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 09:14
+ **/
+public interface Worker {
+
+    void schedule(Runnable task);
+
+    /** 丢弃尚未执行的任务，之后提交的任务也不再执行 */
+    void dispose();
+
+    boolean isDisposed();
+}
@@ -0,0 +1,241 @@
+package com.github.peacetrue.learn.reactive.timer;
+
+import com.github.peacetrue.learn.reactive.scheduler.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 时间轮定时器。
+ * <p>
+ * 一个后台线程每隔 tickDuration 前进一格，执行当前格中到期的任务。添加和取消任务只入队，
+ * 由后台线程放入或移出时间格，因此添加、取消都是 O(1) 且无锁，大量未到期的定时任务只占用内存，不占用线程。
+ * 任务在后台线程上执行，应当简短，耗时的任务应当转交给其他调度器。
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 18:20
+ **/
+@Slf4j
+public class HashedWheelTimer {
+
+    private static final int INIT = 0, STARTED = 1, STOPPED = 2;
+    /** 每一格最多转移的新任务数，避免新任务过多时推迟到期任务的执行 */
+    private static final int MAX_TRANSFER = 100_000;
+
+    private static class Holder {
+        private static final HashedWheelTimer SHARED = new HashedWheelTimer("wheel-timer", Duration.ofMillis(10), 512);
+    }
+
+    /** 共享的定时器，供承诺超时等场景使用 */
+    public static HashedWheelTimer shared() {
+        return Holder.SHARED;
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Thread worker;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+    private final Queue<WheelTimeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private volatile long startTime;
+
+    /**
+     * @param name         后台线程名称
+     * @param tickDuration 每一格的时长，即定时精度
+     * @param ticksPerWheel 格数，向上取整为 2 的幂
+     */
+    public HashedWheelTimer(String name, Duration tickDuration, int ticksPerWheel) {
+        this.tickNanos = tickDuration.toNanos();
+        if (tickNanos <= 0) throw new IllegalArgumentException("tickDuration must be > 0");
+        if (ticksPerWheel < 1) throw new IllegalArgumentException("ticksPerWheel must be > 0");
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1));
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.worker = new NamedThreadFactory(name).newThread(this::work);
+    }
+
+    public Timeout newTimeout(Runnable task, Duration delay) {
+        return newTimeout(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 添加定时任务，首次添加时启动后台线程
+     *
+     * @param task  到期后执行的任务
+     * @param delay 延迟时长
+     * @param unit  时长单位
+     * @return 定时任务句柄
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        start();
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startTime;
+        WheelTimeout timeout = new WheelTimeout(this, task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /** @return 尚未到期且未取消的任务数 */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case INIT:
+                if (state.compareAndSet(INIT, STARTED)) {
+                    startTime = System.nanoTime();
+                    worker.start();
+                }
+                break;
+            case STARTED:
+                break;
+            default:
+                throw new IllegalStateException("timer stopped");
+        }
+        //其他线程正在启动
+        while (startTime == 0) Thread.onSpinWait();
+    }
+
+    /** 停止后台线程，未到期的任务不再执行 */
+    public void stop() {
+        if (state.getAndSet(STOPPED) == STARTED) LockSupport.unpark(worker);
+    }
+
+    private void work() {
+        long tick = 0;
+        while (state.get() == STARTED) {
+            if (!waitForNextTick(tick)) break;
+            removeCancelled();
+            transferAdded(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /** @return false 如果定时器已停止 */
+    private boolean waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        for (; ; ) {
+            long current = System.nanoTime() - startTime;
+            if (current >= deadline) return true;
+            LockSupport.parkNanos(this, deadline - current);
+            if (state.get() != STARTED) return false;
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    private void transferAdded(long tick) {
+        WheelTimeout timeout;
+        for (int i = 0; i < MAX_TRANSFER && (timeout = added.poll()) != null; i++) {
+            if (timeout.get() != WheelTimeout.INIT) continue;
+            long ticks = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            //已过期的任务放入当前格，立即执行
+            wheel[(int) (Math.max(ticks, tick) & mask)].add(timeout);
+        }
+    }
+
+    private static final class WheelTimeout extends AtomicInteger implements Timeout {
+        private static final int INIT = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        /** 以下字段只在后台线程上访问 */
+        private long remainingRounds;
+        private WheelTimeout prev, next;
+        private Bucket bucket;
+
+        private WheelTimeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean cancel() {
+            if (!compareAndSet(INIT, CANCELLED)) return false;
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!compareAndSet(INIT, EXPIRED)) return;
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable exception) {
+                log.warn("timeout task invoke exception", exception);
+            }
+        }
+    }
+
+    /** 时间格，双向链表，只在后台线程上访问 */
+    private static final class Bucket {
+        private WheelTimeout head, tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) return;
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) timeout.prev.next = next;
+            if (next != null) next.prev = timeout.prev;
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
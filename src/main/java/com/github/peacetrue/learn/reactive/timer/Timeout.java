@@ -0,0 +1,21 @@
+package com.github.peacetrue.learn.reactive.timer;
+
+/**
+ * 定时任务的句柄
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 18:20
+ **/
+public interface Timeout {
+
+    /**
+     * 取消定时任务
+     *
+     * @return true 如果本次调用取消了任务，任务已执行或已取消时返回 false
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    boolean isExpired();
+}
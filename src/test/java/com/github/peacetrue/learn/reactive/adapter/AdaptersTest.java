@@ -0,0 +1,106 @@
+package com.github.peacetrue.learn.reactive.adapter;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.promise.PromiseProcess;
+import com.github.peacetrue.learn.reactive.sample.SamplePublisher;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-18 01:00
+ **/
+@Slf4j
+class AdaptersTest {
+
+    @Test
+    void toMono() throws Exception {
+        PromiseImpl<String> promise = new PromiseImpl<>();
+        AtomicReference<Thread> received = new AtomicReference<>();
+        PromiseAdapters.toMono(promise).subscribe(value -> received.set(Thread.currentThread()));
+        Thread completer = new Thread(() -> promise.onSuccess("rice"), "completer");
+        completer.start();
+        completer.join();
+        //在完成承诺的线程上收到结果，没有切换线程
+        Assertions.assertSame(completer, received.get());
+        Assertions.assertNull(PromiseAdapters.toMono(PromiseImpl.invoke(() -> null, Schedulers.immediate())).block());
+    }
+
+    @Test
+    void toMonoCold() {
+        AtomicInteger invoked = new AtomicInteger();
+        PromiseProcess<Integer> promise = PromiseProcess.invoke(invoked::incrementAndGet, Schedulers.immediate());
+        Mono<Integer> mono = PromiseAdapters.toMono(promise);
+        //订阅时才启动
+        Assertions.assertEquals(0, invoked.get());
+        Assertions.assertEquals(1, mono.block());
+        Assertions.assertEquals(1, mono.block());
+    }
+
+    @Test
+    void toMonoCancel() {
+        PromiseImpl<String> promise = new PromiseImpl<>();
+        Disposable disposable = PromiseAdapters.toMono(promise).subscribe(value -> {
+        });
+        disposable.dispose();
+        Assertions.assertTrue(promise.isCancelled());
+    }
+
+    @Test
+    void fromMono() {
+        Assertions.assertEquals("rice", PromiseAdapters.fromMono(Mono.just("rice")).getValue());
+        PromiseImpl<String> empty = PromiseAdapters.fromMono(Mono.empty());
+        Assertions.assertTrue(empty.isSuccess());
+        Assertions.assertNull(empty.getValue());
+
+        AtomicInteger cancelled = new AtomicInteger();
+        PromiseImpl<String> never = PromiseAdapters.fromMono(Mono.<String>never().doOnCancel(cancelled::incrementAndGet));
+        never.cancel(false);
+        Assertions.assertEquals(1, cancelled.get());
+    }
+
+    @Test
+    void completableFuture() {
+        PromiseImpl<String> promise = new PromiseImpl<>();
+        CompletableFuture<String> future = PromiseAdapters.toCompletableFuture(promise);
+        promise.onSuccess("rice");
+        Assertions.assertEquals("rice", future.join());
+
+        PromiseImpl<String> pending = new PromiseImpl<>();
+        PromiseAdapters.toCompletableFuture(pending).cancel(false);
+        Assertions.assertTrue(pending.isCancelled());
+
+        CompletableFuture<String> source = new CompletableFuture<>();
+        PromiseImpl<String> adapted = PromiseAdapters.fromCompletableFuture(source);
+        adapted.cancel(false);
+        Assertions.assertTrue(source.isCancelled());
+
+        PromiseImpl<Object> failed = PromiseAdapters.fromCompletableFuture(CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException("burnt");
+        }));
+        Assertions.assertEquals("burnt", Assertions.assertThrows(RuntimeException.class, failed::join).getCause().getMessage());
+    }
+
+    @Test
+    void flow() {
+        SamplePublisher<Integer> publisher = new SamplePublisher<>(Arrays.asList(1, 2, 3, 4, 5));
+        List<Integer> items = FlowAdapters.toFlux(publisher).take(3).collectList().block();
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), items);
+
+        Flow.Publisher<Integer> flowPublisher = FlowAdapters.toFlowPublisher(Flux.range(1, 3));
+        List<Integer> roundTrip = FlowAdapters.toFlux(flowPublisher).collectList().block();
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), roundTrip);
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.peacetrue.learn.reactive.cache;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 23:55
+ **/
+@Slf4j
+class PromiseCacheTest {
+
+    @Test
+    void singleFlight() {
+        PromiseCache<String, String> cache = new PromiseCache<>(16, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        PromiseImpl<String> upstream = new PromiseImpl<>();
+        List<PromiseImpl<String>> promises = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            promises.add(cache.get("food", key -> {
+                loads.incrementAndGet();
+                return upstream;
+            }));
+        }
+        //加载期间的调用者共享同一次加载
+        Assertions.assertEquals(1, loads.get());
+        upstream.onSuccess("vegetables");
+        for (PromiseImpl<String> promise : promises) Assertions.assertEquals("vegetables", promise.join());
+
+        //加载完成后直接命中
+        Assertions.assertEquals("vegetables", cache.get("food", key -> PromiseImpl.invoke(() -> "meat")).join());
+        PromiseCacheStats stats = cache.stats();
+        log.info("stats: {}", stats);
+        Assertions.assertEquals(10, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(1, stats.getLoadSuccesses());
+        Assertions.assertEquals(1, stats.getLoadTime().getCount());
+    }
+
+    @Test
+    void cancelIsolated() {
+        PromiseCache<String, String> cache = new PromiseCache<>(16, Duration.ofMinutes(1));
+        PromiseImpl<String> upstream = new PromiseImpl<>();
+        PromiseImpl<String> first = cache.get("food", key -> upstream);
+        PromiseImpl<String> second = cache.get("food", key -> upstream);
+        first.cancel(true);
+        //取消自己的承诺不影响加载和其他调用者
+        Assertions.assertFalse(upstream.isCompleted());
+        upstream.onSuccess("vegetables");
+        Assertions.assertThrows(CancellationException.class, first::join);
+        Assertions.assertEquals("vegetables", second.join());
+    }
+
+    @Test
+    void failureEvicted() {
+        PromiseCache<String, String> cache = new PromiseCache<>(16, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        PromiseImpl<String> failed = cache.get("food", key -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("market closed");
+        });
+        Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals(0, cache.size());
+        //失败不缓存，再次调用重新加载
+        Assertions.assertEquals("vegetables", cache.get("food", key -> {
+            loads.incrementAndGet();
+            return PromiseImpl.invoke(() -> "vegetables");
+        }).join());
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, cache.stats().getLoadFailures());
+    }
+
+    @Test
+    void ttl() throws Exception {
+        PromiseCache<String, Integer> cache = new PromiseCache<>(16, Duration.ofMillis(20));
+        AtomicInteger loads = new AtomicInteger();
+        Assertions.assertEquals(1, cache.get("food", key -> PromiseImpl.invoke(loads::incrementAndGet)).join());
+        Assertions.assertEquals(1, cache.get("food", key -> PromiseImpl.invoke(loads::incrementAndGet)).join());
+        Thread.sleep(30);
+        Assertions.assertEquals(2, cache.get("food", key -> PromiseImpl.invoke(loads::incrementAndGet)).join());
+        Assertions.assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void lru() {
+        PromiseCache<Integer, Integer> cache = new PromiseCache<>(2, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        for (int key : new int[]{1, 2, 1, 3}) {
+            cache.get(key, value -> {
+                loads.incrementAndGet();
+                return PromiseImpl.invoke(() -> value);
+            }).join();
+        }
+        //访问过的 1 保留，最久未访问的 2 被淘汰
+        Assertions.assertEquals(3, loads.get());
+        cache.get(1, value -> {
+            loads.incrementAndGet();
+            return PromiseImpl.invoke(() -> value);
+        }).join();
+        Assertions.assertEquals(3, loads.get());
+        cache.get(2, value -> {
+            loads.incrementAndGet();
+            return PromiseImpl.invoke(() -> value);
+        }).join();
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(2.0 / 6, cache.stats().getHitRate());
+    }
+
+    @Test
+    void inflightNotEvicted() {
+        PromiseCache<Integer, Integer> cache = new PromiseCache<>(2, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        List<PromiseImpl<Integer>> upstreams = new ArrayList<>();
+        for (int i = 0; i < 4; i++) upstreams.add(new PromiseImpl<>());
+        List<PromiseImpl<Integer>> promises = new ArrayList<>();
+        //加载中的键多于 maximumSize，仍然各自只加载一次
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < upstreams.size(); i++) {
+                int index = i;
+                promises.add(cache.get(i, key -> {
+                    loads.incrementAndGet();
+                    return upstreams.get(index);
+                }));
+            }
+        }
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertEquals(0, cache.stats().getEvictions());
+        for (int i = 0; i < upstreams.size(); i++) upstreams.get(i).onSuccess(i);
+        for (int i = 0; i < promises.size(); i++) Assertions.assertEquals(i % 4, promises.get(i).join());
+        //加载完成后淘汰到容量以内
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(2, cache.stats().getEvictions());
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.peacetrue.learn.reactive.callback;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 23:20
+ **/
+@Slf4j
+class CallbackResultTest {
+
+    @Test
+    void completeOnce() {
+        CallbackResult<String> result = new CallbackResult<>();
+        Assertions.assertFalse(result.isCompleted());
+        result.setValue("rice");
+        //设置结果即完成，之后的设置不生效
+        Assertions.assertTrue(result.isSuccess());
+        result.setException(new IllegalStateException());
+        result.setCompleted(true);
+        Assertions.assertEquals("rice", result.getValue());
+        Assertions.assertNull(result.getException());
+        Assertions.assertEquals("rice", result.join());
+    }
+
+    @Test
+    void joinWaiters() throws Exception {
+        CallbackResult<Integer> result = new CallbackResult<>();
+        List<Integer> values = new ArrayList<>();
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread waiter = new Thread(() -> {
+                Integer value = result.join();
+                synchronized (values) {
+                    values.add(value);
+                }
+            });
+            waiter.start();
+            waiters.add(waiter);
+        }
+        Thread.sleep(20);
+        result.setValue(1);
+        for (Thread waiter : waiters) {
+            waiter.join(1000);
+            Assertions.assertFalse(waiter.isAlive());
+        }
+        Assertions.assertEquals(List.of(1, 1, 1, 1), values);
+    }
+
+    @Test
+    void error() {
+        CallbackResult<Integer> result = new CallbackResult<>();
+        new Thread(() -> result.setException(new IllegalStateException("burnt"))).start();
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, result::join);
+        Assertions.assertEquals("burnt", exception.getCause().getMessage());
+        Assertions.assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timeout() {
+        CallbackResult<Integer> result = new CallbackResult<>();
+        long start = System.nanoTime();
+        Assertions.assertThrows(TimeoutException.class, () -> result.get(20, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+        //超时的等待者不影响之后完成
+        result.setCompleted(true);
+        Assertions.assertTrue(result.isSuccess());
+        Assertions.assertNull(result.join());
+    }
+
+    @Test
+    void interrupt() throws Exception {
+        CallbackResult<Integer> result = new CallbackResult<>();
+        Thread.currentThread().interrupt();
+        Assertions.assertThrows(InterruptedException.class, () -> result.get(1, TimeUnit.SECONDS));
+        //join 不响应中断，完成后恢复中断状态
+        Thread waiter = new Thread(() -> {
+            result.join();
+            Assertions.assertTrue(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+        waiter.interrupt();
+        Thread.sleep(20);
+        Assertions.assertTrue(waiter.isAlive());
+        result.setValue(1);
+        waiter.join(1000);
+        Assertions.assertFalse(waiter.isAlive());
+    }
+
+    @Test
+    void pollTimeout() throws Exception {
+        CallbackResult<Integer> result = new CallbackResult<>();
+        Thread waiter = new Thread(result::join);
+        waiter.start();
+        while (result.waiterCount() == 0) Thread.onSpinWait();
+        //反复限时等待，超时的等待者都从栈中摘除
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertThrows(TimeoutException.class, () -> result.get(1, TimeUnit.MICROSECONDS));
+        }
+        Thread.currentThread().interrupt();
+        Assertions.assertThrows(InterruptedException.class, () -> result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, result.waiterCount());
+        //仍在等待的线程不受影响
+        result.setValue(1);
+        waiter.join(1000);
+        Assertions.assertFalse(waiter.isAlive());
+        Assertions.assertEquals(0, result.waiterCount());
+    }
+}
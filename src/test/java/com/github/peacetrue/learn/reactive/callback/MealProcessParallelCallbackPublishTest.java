@@ -2,9 +2,14 @@ package com.github.peacetrue.learn.reactive.callback;
 
 import com.github.peacetrue.learn.reactive.MealProcess;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author : xiayx
@@ -18,6 +23,7 @@ public class MealProcessParallelCallbackPublishTest {
         MealProcess mealProcess = new MealProcess();
         CallbackResult<String> foodResult = new CallbackResult<>();
         CallbackResult<String> richResult = new CallbackResult<>();
+        CallbackResult<Long> eatResult = new CallbackResult<>();
         long start = System.currentTimeMillis();
         //买菜
         new CallbackPublisher<>(mealProcess::buyFood).subscribe(new Flow.Subscriber<String>() {
@@ -39,7 +45,7 @@ public class MealProcessParallelCallbackPublishTest {
                         //想吃饭？除非饭做好了
                         if (richResult.isSuccess()) {
                             mealProcess.eat(richResult.getValue(), result);
-                            log.info("吃饭流程（并行回调）共花费 {} 毫秒", System.currentTimeMillis() - start);
+                            eatResult.setValue(System.currentTimeMillis() - start);
                         }
                     }
 
@@ -76,7 +82,7 @@ public class MealProcessParallelCallbackPublishTest {
                 //想吃饭？除非菜做好了
                 if (foodResult.isSuccess()) {
                     mealProcess.eat(result, foodResult.getValue());
-                    log.info("吃饭流程（并行回调）共花费 {} 毫秒", System.currentTimeMillis() - start);
+                    eatResult.setValue(System.currentTimeMillis() - start);
                 }
             }
 
@@ -89,6 +95,32 @@ public class MealProcessParallelCallbackPublishTest {
             }
         });
 
-        Thread.sleep(1000L);
+        //等待吃完饭，不再固定休眠
+        log.info("吃饭流程（并行回调）共花费 {} 毫秒", eatResult.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejected() {
+        List<Object> signals = new ArrayList<>();
+        //调度器已满时，拒绝通过 onError、onComplete 通知订阅者，不抛给调用方
+        new CallbackPublisher<>(() -> "food", task -> {
+            throw new RejectedExecutionException("saturated");
+        }).subscribe(new Flow.Subscriber<String>() {
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            public void onNext(String item) {
+                signals.add(item);
+            }
+
+            public void onError(Throwable throwable) {
+                signals.add(throwable.getClass());
+            }
+
+            public void onComplete() {
+                signals.add("complete");
+            }
+        });
+        Assertions.assertEquals(List.of(RejectedExecutionException.class, "complete"), signals);
     }
 }
@@ -4,6 +4,8 @@ import com.github.peacetrue.learn.reactive.MealProcess;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author : xiayx
  * @since : 2020-12-20 14:12
@@ -16,6 +18,7 @@ public class MealProcessParallelCallbackTest {
         MealProcess mealProcess = new MealProcess();
         CallbackResult<String> foodResult = new CallbackResult<>();
         CallbackResult<String> richResult = new CallbackResult<>();
+        CallbackResult<Long> eatResult = new CallbackResult<>();
         long start = System.currentTimeMillis();
         //买菜
         CallbackHandler.invoke(mealProcess::buyFood, new CallbackHandler<String>() {
@@ -27,7 +30,7 @@ public class MealProcessParallelCallbackTest {
                         //想吃饭？除非饭做好了
                         if (richResult.isSuccess()) {
                             mealProcess.eat(richResult.getValue(), result);
-                            log.info("吃饭流程（并行回调）共花费 {} 毫秒", System.currentTimeMillis() - start);
+                            eatResult.setValue(System.currentTimeMillis() - start);
                         }
                     }
                 });
@@ -49,7 +52,7 @@ public class MealProcessParallelCallbackTest {
                 //想吃饭？除非菜做好了
                 if (foodResult.isSuccess()) {
                     mealProcess.eat(result, foodResult.getValue());
-                    log.info("吃饭流程（并行回调）共花费 {} 毫秒", System.currentTimeMillis() - start);
+                    eatResult.setValue(System.currentTimeMillis() - start);
                 }
 
             }
@@ -63,6 +66,7 @@ public class MealProcessParallelCallbackTest {
             }
         });
 
-        Thread.sleep(1000L);
+        //等待吃完饭，不再固定休眠
+        log.info("吃饭流程（并行回调）共花费 {} 毫秒", eatResult.get(1, TimeUnit.SECONDS));
     }
 }
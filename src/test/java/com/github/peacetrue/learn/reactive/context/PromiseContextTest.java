@@ -0,0 +1,147 @@
+package com.github.peacetrue.learn.reactive.context;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-18 01:40
+ **/
+@Slf4j
+class PromiseContextTest {
+
+    /** 哈希值相同的键 */
+    private static class CollidingKey {
+        private final String name;
+
+        private CollidingKey(String name) {
+            this.name = name;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).name.equals(name);
+        }
+
+        public int hashCode() {
+            return 1;
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    void persistent() {
+        PromiseContext empty = PromiseContext.empty();
+        PromiseContext one = empty.put("userId", 1);
+        PromiseContext two = one.put("traceId", "t1");
+        //修改不影响原上下文
+        Assertions.assertTrue(empty.isEmpty());
+        Assertions.assertEquals(1, one.size());
+        Assertions.assertFalse(one.hasKey("traceId"));
+        Assertions.assertEquals("t1", two.get("traceId"));
+        Assertions.assertSame(two, two.put("userId", 1));
+        Assertions.assertEquals(2, (int) two.put("userId", 2).get("userId"));
+        Assertions.assertSame(one, one.delete("traceId"));
+        Assertions.assertEquals(PromiseContext.empty(), one.delete("userId"));
+        Assertions.assertEquals("none", two.getOrDefault("tenant", "none"));
+        Assertions.assertThrows(NoSuchElementException.class, () -> two.get("tenant"));
+        Assertions.assertThrows(NullPointerException.class, () -> two.put("tenant", null));
+        Assertions.assertEquals("PromiseContext{userId=1, traceId=t1}", two.toString());
+    }
+
+    @Test
+    void hamt() {
+        PromiseContext context = PromiseContext.empty();
+        Map<Object, Object> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            Object key = random.nextInt(4) == 0 ? new CollidingKey("c" + random.nextInt(8)) : random.nextInt(64);
+            if (random.nextInt(3) == 0) {
+                context = context.delete(key);
+                expected.remove(key);
+            } else {
+                context = context.put(key, i);
+                expected.put(key, i);
+            }
+            Assertions.assertEquals(expected.size(), context.size());
+            Assertions.assertEquals(expected.get(key), context.getOrDefault(key, null));
+            //超过扁平数组的容量后转为前缀树，删除后转回
+            Assertions.assertEquals(expected.size() > SmallContext.MAX_SIZE, context instanceof HamtContext);
+        }
+        Map<Object, Object> actual = new HashMap<>();
+        context.forEach(actual::put);
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    void putAll() {
+        PromiseContext left = PromiseContext.of("a", 1).put("b", 2);
+        PromiseContext right = PromiseContext.of("b", 3).put("c", 4);
+        PromiseContext merged = left.putAll(right);
+        Assertions.assertEquals(3, merged.size());
+        Assertions.assertEquals(3, (int) merged.get("b"));
+        Assertions.assertSame(left, left.putAll(PromiseContext.empty()));
+    }
+
+    @Test
+    void propagate() throws Exception {
+        Scheduler first = Schedulers.newSingle("context-first");
+        Scheduler second = Schedulers.newSingle("context-second");
+        List<Object> values = new CopyOnWriteArrayList<>();
+        CountDownLatch callback = new CountDownLatch(1);
+        PromiseContext context = PromiseContext.of("userId", 1);
+        PromiseImpl<Integer> promise = context.call(() -> PromiseImpl
+                .invoke(() -> (Integer) PromiseContext.current().get("userId"), first)
+                .thenApplyAsync(value -> value + (int) PromiseContext.current().get("userId"), second)
+                .thenApply(value -> value * 10)
+                .whenSuccess(value -> values.add(PromiseContext.current().get("userId")))
+                .whenComplete(callback::countDown));
+        //调用结束后恢复原来的上下文
+        Assertions.assertTrue(PromiseContext.current().isEmpty());
+        Assertions.assertSame(context, promise.getContext());
+        Assertions.assertEquals(20, promise.get(1, TimeUnit.SECONDS));
+        //唤醒等待者先于执行回调，等回调执行完再注册
+        Assertions.assertTrue(callback.await(1, TimeUnit.SECONDS));
+        promise.whenSuccess(value -> values.add(PromiseContext.current().get("userId")));
+        Assertions.assertEquals(List.of(1, 1), values);
+        Assertions.assertTrue(PromiseContext.current().isEmpty());
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    void isolate() {
+        //同一线程上完成不同上下文的承诺，回调只能看到各自的上下文
+        List<Object> values = new CopyOnWriteArrayList<>();
+        PromiseImpl<Integer> left = PromiseContext.of("userId", 1).call(PromiseImpl::new);
+        PromiseImpl<Integer> right = PromiseContext.of("userId", 2).call(PromiseImpl::new);
+        PromiseImpl<Integer> plain = new PromiseImpl<>();
+        left.whenSuccess(value -> {
+            values.add(PromiseContext.current().get("userId"));
+            right.onSuccess(value);
+            values.add(PromiseContext.current().get("userId"));
+        });
+        right.whenSuccess(value -> {
+            values.add(PromiseContext.current().get("userId"));
+            plain.onSuccess(value);
+        });
+        plain.whenSuccess(value -> values.add(PromiseContext.current().getOrDefault("userId", 0)));
+        left.onSuccess(1);
+        Assertions.assertEquals(List.of(1, 1, 2, 0), values);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.peacetrue.learn.reactive.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 17:10
+ **/
+@Slf4j
+class MappedFilePublisherTest {
+
+    private static Path createFile(String content) throws IOException {
+        Path path = Files.createTempFile("mapped-file", ".log");
+        path.toFile().deleteOnExit();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    /** 每次请求 1 条，收集所有数据 */
+    private static class CollectSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final List<ByteBuffer> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        public void onNext(ByteBuffer item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        public void onError(Throwable throwable) {
+            Assertions.fail(throwable.getMessage());
+        }
+
+        public void onComplete() {
+            completed = true;
+        }
+
+        private List<String> strings() {
+            return items.stream().map(item -> StandardCharsets.UTF_8.decode(item.duplicate()).toString()).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void chunks() throws IOException {
+        Path path = createFile("0123456789abcdefghij");
+        CollectSubscriber subscriber = new CollectSubscriber();
+        //窗口大小 10 对齐为 8
+        new MappedFilePublisher(path, 4, 10).subscribe(subscriber);
+        Assertions.assertEquals(List.of("0123", "4567", "89ab", "cdef", "ghij"), subscriber.strings());
+        Assertions.assertTrue(subscriber.items.get(0).isReadOnly());
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void lines() throws IOException {
+        List<String> lines = IntStream.range(0, 1000).mapToObj(i -> "第 " + i + " 行").collect(Collectors.toList());
+        Path path = createFile(String.join("\r\n", lines));
+        CollectSubscriber subscriber = new CollectSubscriber();
+        //数据块很小，大部分行跨越数据块边界
+        new MappedFilePublisher(path, 7, 64).lines().subscribe(subscriber);
+        Assertions.assertEquals(lines, subscriber.strings());
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void linesWithoutTrailingNewline() throws IOException {
+        Path path = createFile("rice\r\nvegetables\r\nmeat\r");
+        CollectSubscriber subscriber = new CollectSubscriber();
+        new MappedFilePublisher(path, 4, 64).lines().subscribe(subscriber);
+        //最后一条记录没有换行符，同样去除回车符
+        Assertions.assertEquals(List.of("rice", "vegetables", "meat"), subscriber.strings());
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void cancel() throws IOException {
+        Path path = createFile("a\nb\nc\nd\n");
+        List<String> items = new ArrayList<>();
+        new MappedFilePublisher(path).lines().subscribe(new CollectSubscriber() {
+            public void onNext(ByteBuffer item) {
+                items.add(StandardCharsets.UTF_8.decode(item).toString());
+                if (items.size() == 2) super.subscription.cancel();
+                else super.subscription.request(1);
+            }
+
+            public void onComplete() {
+                Assertions.fail("cancelled");
+            }
+        });
+        Assertions.assertEquals(List.of("a", "b"), items);
+    }
+}
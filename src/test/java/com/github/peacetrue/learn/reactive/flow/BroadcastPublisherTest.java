@@ -0,0 +1,103 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import com.github.peacetrue.learn.reactive.flow.FlowFixtures.ListSubscriber;
+import com.github.peacetrue.learn.reactive.sample.SamplePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 22:00
+ **/
+@Slf4j
+class BroadcastPublisherTest {
+
+    @Test
+    void multicast() {
+        AtomicInteger reads = new AtomicInteger();
+        BroadcastPublisher<Integer> publisher = new BroadcastPublisher<>(new SamplePublisher<>(FlowFixtures.range(1000, reads)));
+        List<ListSubscriber<Integer>> subscribers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+            subscribers.add(subscriber);
+            publisher.subscribe(subscriber);
+        }
+        Assertions.assertTrue(publisher.connect());
+        Assertions.assertFalse(publisher.connect());
+        //数据源只读取一次
+        Assertions.assertEquals(1000, reads.get());
+        for (ListSubscriber<Integer> subscriber : subscribers) {
+            Assertions.assertEquals(1000, subscriber.items.size());
+            Assertions.assertEquals(999, subscriber.items.get(999));
+            Assertions.assertTrue(subscriber.completed);
+        }
+    }
+
+    @Test
+    void block() {
+        AtomicInteger reads = new AtomicInteger();
+        BroadcastPublisher<Integer> publisher = new BroadcastPublisher<>(new SamplePublisher<>(FlowFixtures.range(100, reads)), 8, BroadcastPublisher.Overflow.BLOCK, 0);
+        ListSubscriber<Integer> fast = new ListSubscriber<>(Long.MAX_VALUE), slow = new ListSubscriber<>(0);
+        publisher.subscribe(fast);
+        publisher.subscribe(slow);
+        publisher.connect();
+        //按最慢的订阅者请求上游
+        Assertions.assertEquals(8, fast.items.size());
+        slow.subscription.request(4);
+        Assertions.assertEquals(4, slow.items.size());
+        Assertions.assertEquals(12, fast.items.size());
+        //慢的订阅者取消后不再限制
+        slow.subscription.cancel();
+        Assertions.assertEquals(100, fast.items.size());
+        Assertions.assertTrue(fast.completed);
+        Assertions.assertEquals(0, publisher.getDropped());
+    }
+
+    @Test
+    void drop() {
+        BroadcastPublisher<Integer> publisher = new BroadcastPublisher<>(new SamplePublisher<>(FlowFixtures.range(100)), 8, BroadcastPublisher.Overflow.DROP, 0);
+        ListSubscriber<Integer> fast = new ListSubscriber<>(Long.MAX_VALUE), slow = new ListSubscriber<>(0);
+        publisher.subscribe(fast);
+        publisher.subscribe(slow);
+        publisher.connect();
+        Assertions.assertEquals(100, fast.items.size());
+        slow.subscription.request(Long.MAX_VALUE);
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7), slow.items);
+        Assertions.assertTrue(slow.completed);
+        Assertions.assertEquals(92, publisher.getDropped());
+    }
+
+    @Test
+    void latest() {
+        BroadcastPublisher<Integer> publisher = new BroadcastPublisher<>(new SamplePublisher<>(FlowFixtures.range(100)), 8, BroadcastPublisher.Overflow.LATEST, 0);
+        ListSubscriber<Integer> slow = new ListSubscriber<>(0);
+        publisher.subscribe(slow);
+        publisher.connect();
+        slow.subscription.request(Long.MAX_VALUE);
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 99), slow.items);
+        Assertions.assertTrue(slow.completed);
+    }
+
+    @Test
+    void replay() {
+        AtomicInteger reads = new AtomicInteger();
+        BroadcastPublisher<Integer> publisher = new BroadcastPublisher<>(new SamplePublisher<>(FlowFixtures.range(100, reads)), 8, BroadcastPublisher.Overflow.BLOCK, 5);
+        publisher.subscribe(new ListSubscriber<>(Long.MAX_VALUE));
+        publisher.connect();
+        //晚到的订阅者收到最近的 5 条数据
+        ListSubscriber<Integer> late = new ListSubscriber<>(2);
+        publisher.subscribe(late);
+        Assertions.assertEquals(Arrays.asList(95, 96), late.items);
+        Assertions.assertFalse(late.completed);
+        late.subscription.request(10);
+        Assertions.assertEquals(Arrays.asList(95, 96, 97, 98, 99), late.items);
+        Assertions.assertTrue(late.completed);
+        Assertions.assertEquals(100, reads.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 流相关测试共用的数据源和订阅者
+ *
+ * @author : xiayx
+ * @since : 2026-10-18 03:40
+ **/
+public final class FlowFixtures {
+
+    private FlowFixtures() {
+    }
+
+    /** 不占用内存的大列表 */
+    public static List<Integer> range(int size) {
+        return range(size, new AtomicInteger());
+    }
+
+    /** 记录读取次数的数据源 */
+    public static List<Integer> range(int size, AtomicInteger reads) {
+        return new AbstractList<>() {
+            public Integer get(int index) {
+                reads.incrementAndGet();
+                return index;
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** 初始请求 initial 条，收集所有数据及接收数据的线程 */
+    static class ListSubscriber<T> implements Flow.Subscriber<T> {
+        private final long initial;
+        final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        ListSubscriber(long initial) {
+            this.initial = initial;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initial > 0) subscription.request(initial);
+        }
+
+        public void onNext(T item) {
+            threads.add(Thread.currentThread().getName());
+            items.add(item);
+        }
+
+        public void onError(Throwable throwable) {
+            error = throwable;
+            latch.countDown();
+        }
+
+        public void onComplete() {
+            completed = true;
+            latch.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
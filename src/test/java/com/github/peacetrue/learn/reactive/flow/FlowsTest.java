@@ -0,0 +1,146 @@
+package com.github.peacetrue.learn.reactive.flow;
+
+import com.github.peacetrue.learn.reactive.flow.FlowFixtures.ListSubscriber;
+import com.github.peacetrue.learn.reactive.sample.SamplePublisher;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 22:40
+ **/
+@Slf4j
+class FlowsTest {
+
+    /** 耗时不均的转换，后到的数据可能先完成 */
+    private static int slowSquare(int value) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(value % 7 * 100));
+        return value * value;
+    }
+
+    @Test
+    void parallelMapOrdered() throws Exception {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+        Flows.parallelMap(new SamplePublisher<>(FlowFixtures.range(200)), 4, 16, value -> {
+            threads.add(Thread.currentThread().getName());
+            return slowSquare(value);
+        }).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertNull(subscriber.error);
+        List<Integer> expected = IntStream.range(0, 200).map(value -> value * value).boxed().collect(Collectors.toList());
+        Assertions.assertEquals(expected, subscriber.items);
+        log.info("threads: {}", threads);
+    }
+
+    @Test
+    void parallelMapUnordered() throws Exception {
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+        Flows.parallelMap(new SamplePublisher<>(FlowFixtures.range(200)), 4, 16, FlowsTest::slowSquare, false, ForkJoinPool.commonPool())
+                .subscribe(subscriber);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals(200, subscriber.items.size());
+        Set<Integer> expected = IntStream.range(0, 200).map(value -> value * value).boxed().collect(Collectors.toSet());
+        Assertions.assertEquals(expected, new HashSet<>(subscriber.items));
+    }
+
+    @Test
+    void parallelMapBackpressure() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(5);
+        Flows.parallelMap(new SamplePublisher<>(FlowFixtures.range(1000, reads)), 4, 16, FlowsTest::slowSquare).subscribe(subscriber);
+        while (subscriber.items.size() < 5) Thread.sleep(1);
+        Thread.sleep(50);
+        //下游只请求 5 条，上游最多读取 5 + 预取数量
+        Assertions.assertEquals(5, subscriber.items.size());
+        Assertions.assertTrue(reads.get() <= 5 + 16, "reads: " + reads.get());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals(1000, subscriber.items.size());
+        Assertions.assertEquals(999 * 999, subscriber.items.get(999));
+    }
+
+    @Test
+    void parallelMapError() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+        Flows.parallelMap(new SamplePublisher<>(FlowFixtures.range(1000, reads)), 4, 16, value -> {
+            if (value == 10) throw new IllegalStateException("bad item");
+            return value;
+        }).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals("bad item", subscriber.error.getMessage());
+        Assertions.assertTrue(reads.get() < 1000);
+    }
+
+    @Test
+    void publishOn() throws Exception {
+        Scheduler scheduler = Schedulers.newSingle("publish-on");
+        Set<String> producers = ConcurrentHashMap.newKeySet();
+        SamplePublisher<Integer> source = new SamplePublisher<>(new AbstractList<>() {
+            public Integer get(int index) {
+                producers.add(Thread.currentThread().getName());
+                return index;
+            }
+
+            public int size() {
+                return 1000;
+            }
+        });
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+        Flows.publishOn(source, scheduler, 32).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), subscriber.items);
+        //下游在调度器线程上接收数据
+        Assertions.assertEquals(Set.of("publish-on-1"), subscriber.threads);
+        Assertions.assertTrue(producers.contains(Thread.currentThread().getName()));
+        scheduler.dispose();
+    }
+
+    @Test
+    void publishOnBackpressure() throws Exception {
+        Scheduler scheduler = Schedulers.newSingle("publish-on");
+        AtomicInteger reads = new AtomicInteger();
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(10);
+        Flows.publishOn(new SamplePublisher<>(FlowFixtures.range(1000, reads)), scheduler, 32).subscribe(subscriber);
+        while (subscriber.items.size() < 10) Thread.sleep(1);
+        Thread.sleep(50);
+        //预取 32 条，发布 24 条（75%）后补充请求
+        Assertions.assertEquals(10, subscriber.items.size());
+        Assertions.assertEquals(32, reads.get());
+        subscriber.subscription.request(20);
+        while (subscriber.items.size() < 30) Thread.sleep(1);
+        Assertions.assertEquals(32 + 24, reads.get());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals(1000, subscriber.items.size());
+        scheduler.dispose();
+    }
+
+    @Test
+    void subscribeOn() throws Exception {
+        Scheduler scheduler = Schedulers.newSingle("subscribe-on");
+        ListSubscriber<Integer> subscriber = new ListSubscriber<>(Long.MAX_VALUE);
+        Flows.subscribeOn(new SamplePublisher<>(FlowFixtures.range(100)), scheduler).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.await());
+        Assertions.assertEquals(100, subscriber.items.size());
+        //同步发布的上游在调度器线程上发布
+        Assertions.assertEquals(Set.of("subscribe-on-1"), subscriber.threads);
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.peacetrue.learn.reactive.graph;
+
+import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 20:05
+ **/
+@Slf4j
+class TaskGraphTest {
+
+    private static TaskGraph meal(MealProcess mealProcess) {
+        return new TaskGraph()
+                .node("buyFood", Duration.ofMillis(10), inputs -> mealProcess.buyFood())
+                .node("cookRice", Duration.ofMillis(15), inputs -> mealProcess.cookRice())
+                .node("cookFood", Duration.ofMillis(10), inputs -> mealProcess.cookFood(inputs.get("buyFood")), "buyFood")
+                .node("eat", Duration.ofMillis(10), inputs -> {
+                    mealProcess.eat(inputs.get("cookRice"), inputs.get("cookFood"));
+                    return "";
+                }, "cookRice", "cookFood");
+    }
+
+    private static TaskGraphResult await(PromiseImpl<TaskGraphResult> promise) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.whenComplete(latch::countDown);
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(promise.isSuccess());
+        return promise.getValue();
+    }
+
+    @Test
+    void meal() throws InterruptedException {
+        Scheduler scheduler = Schedulers.newBounded("graph", 2);
+        TaskGraphResult result = await(meal(new MealProcess()).execute(scheduler, 2));
+        log.info("吃饭流程（任务图）共花费 {} 毫秒，关键路径 {} 毫秒",
+                result.getMakespan().toMillis(), result.getCriticalPath().toMillis());
+        Assertions.assertEquals("熟的菜", result.get("cookFood"));
+        Assertions.assertEquals(Duration.ofMillis(30), result.getCriticalPath());
+        Assertions.assertTrue(result.getMakespan().compareTo(result.getCriticalPath()) >= 0);
+        scheduler.dispose();
+    }
+
+    @Test
+    void criticalPathFirst() throws InterruptedException {
+        //只有一个并发时，按最长剩余路径的顺序执行：买菜 30ms > 煮饭 25ms > 做菜 20ms
+        TaskGraphResult result = await(meal(new MealProcess()).execute(Schedulers.immediate(), 1));
+        Assertions.assertEquals(Arrays.asList("buyFood", "cookRice", "cookFood", "eat"), result.getOrder());
+    }
+
+    @Test
+    void largeGraph() throws InterruptedException {
+        //随机生成 300 个节点的有向无环图，节点结果为依赖结果之和加一
+        Random random = new Random(0);
+        int size = 300;
+        TaskGraph graph = new TaskGraph();
+        long[] expected = new long[size];
+        AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+        for (int i = 0; i < size; i++) {
+            String[] dependencies = random.ints(Math.min(i, random.nextInt(4)), 0, Math.max(1, i))
+                    .distinct().mapToObj(index -> "n" + index).toArray(String[]::new);
+            expected[i] = 1 + Arrays.stream(dependencies).mapToLong(name -> expected[Integer.parseInt(name.substring(1))]).sum();
+            graph.node("n" + i, inputs -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                long sum = 1;
+                for (String dependency : dependencies) sum += inputs.<Long>get(dependency);
+                running.decrementAndGet();
+                return sum;
+            }, dependencies);
+        }
+        Scheduler scheduler = Schedulers.newBounded("graph", 8);
+        TaskGraphResult result = await(graph.execute(scheduler, 4));
+        for (int i = 0; i < size; i++) Assertions.assertEquals(expected[i], (long) result.get("n" + i));
+        Assertions.assertEquals(size, result.getOrder().size());
+        Assertions.assertTrue(maxRunning.get() <= 4);
+        scheduler.dispose();
+    }
+
+    @Test
+    void fail() throws InterruptedException {
+        AtomicInteger executed = new AtomicInteger();
+        PromiseImpl<TaskGraphResult> promise = new TaskGraph()
+                .node("a", inputs -> {
+                    throw new IllegalArgumentException("a");
+                })
+                .node("b", inputs -> executed.incrementAndGet(), "a")
+                .execute(Schedulers.immediate(), 1);
+        Assertions.assertTrue(promise.getException().getCause() instanceof IllegalArgumentException);
+        Assertions.assertEquals(0, executed.get());
+    }
+
+    @Test
+    void invalid() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new TaskGraph().node("a", inputs -> 1, "b").execute());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new TaskGraph().node("a", inputs -> 1, "b").node("b", inputs -> 1, "a").execute());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new TaskGraph().node("a", inputs -> 1).node("a", inputs -> 1));
+    }
+}
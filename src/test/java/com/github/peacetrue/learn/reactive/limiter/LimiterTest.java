@@ -0,0 +1,174 @@
+package com.github.peacetrue.learn.reactive.limiter;
+
+import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.callback.CallbackHandler;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-18 02:50
+ **/
+@Slf4j
+class LimiterTest {
+
+    /** 每个测试方法使用新的实例 */
+    private final Scheduler scheduler = Schedulers.newBounded("limiter", 8);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void rejectFast() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedLimit(2));
+        Limiter.Permit first = limiter.tryAcquire(), second = limiter.tryAcquire();
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertNull(limiter.tryAcquire());
+        PromiseImpl<Limiter.Permit> rejected = limiter.acquire();
+        Assertions.assertTrue(rejected.getException() instanceof RejectedExecutionException);
+        Assertions.assertEquals(1, limiter.getRejected());
+        //重复归还只生效一次
+        first.release();
+        first.release();
+        Assertions.assertEquals(1, limiter.getInflight());
+        Assertions.assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void boundedWait() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedLimit(1), 1, Duration.ofMillis(50));
+        Limiter.Permit permit = limiter.tryAcquire();
+        PromiseImpl<Limiter.Permit> queued = limiter.acquire();
+        //队列已满
+        Assertions.assertTrue(limiter.acquire().isError());
+        Assertions.assertFalse(queued.isCompleted());
+        permit.release();
+        Assertions.assertNotNull(queued.getValue());
+        Assertions.assertEquals(1, limiter.getInflight());
+
+        //等待超时
+        PromiseImpl<Limiter.Permit> timeout = limiter.acquire();
+        Assertions.assertTrue(Assertions.assertThrows(Exception.class, timeout::join).getCause() instanceof RejectedExecutionException);
+        Assertions.assertEquals(2, limiter.getRejected());
+    }
+
+    @Test
+    void vegas() {
+        VegasLimit limit = new VegasLimit(10, 1, 100);
+        long rtt = TimeUnit.MILLISECONDS.toNanos(10);
+        limit.onSample(rtt, 10, false);
+        for (int i = 0; i < 5; i++) limit.onSample(rtt, limit.getLimit(), false);
+        int grown = limit.getLimit();
+        Assertions.assertTrue(grown > 10, "limit " + grown);
+        //并发未用满时不调整
+        limit.onSample(rtt, 1, false);
+        Assertions.assertEquals(grown, limit.getLimit());
+        //耗时上升说明请求在排队
+        for (int i = 0; i < 5; i++) limit.onSample(rtt * 4, limit.getLimit(), false);
+        Assertions.assertTrue(limit.getLimit() < grown, "limit " + limit.getLimit());
+        int before = limit.getLimit();
+        limit.onSample(rtt, 1, true);
+        Assertions.assertTrue(limit.getLimit() < before);
+    }
+
+    @Test
+    void gradient() {
+        GradientLimit limit = new GradientLimit(10, 1, 100);
+        long rtt = TimeUnit.MILLISECONDS.toNanos(10);
+        for (int i = 0; i < 20; i++) limit.onSample(rtt, limit.getLimit(), false);
+        int grown = limit.getLimit();
+        Assertions.assertTrue(grown > 10, "limit " + grown);
+        for (int i = 0; i < 20; i++) limit.onSample(rtt * 5, limit.getLimit(), false);
+        Assertions.assertTrue(limit.getLimit() < grown, "limit " + limit.getLimit());
+        //不低于下限
+        for (int i = 0; i < 100; i++) limit.onSample(rtt, 1, true);
+        Assertions.assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void tokenBucket() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100, 5, Duration.ofMillis(100));
+        for (int i = 0; i < 5; i++) Assertions.assertNotNull(limiter.tryAcquire());
+        Assertions.assertNull(limiter.tryAcquire());
+        long start = System.nanoTime();
+        PromiseImpl<Limiter.Permit> waited = limiter.acquire();
+        Assertions.assertNotNull(waited.join());
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(5));
+        //预约的等待时间超过 maxWait
+        for (int i = 0; i < 20; i++) limiter.acquire();
+        Assertions.assertTrue(limiter.acquire().getException() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    void invokePromise() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedLimit(2), 100, Duration.ofSeconds(1));
+        AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+        List<PromiseImpl<Integer>> promises = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            promises.add(Limiter.invoke(limiter, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                MealProcess.sleep(5);
+                running.decrementAndGet();
+                return index;
+            }, scheduler));
+        }
+        for (int i = 0; i < promises.size(); i++) Assertions.assertEquals(i, promises.get(i).join());
+        Assertions.assertEquals(2, maxRunning.get());
+        Assertions.assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void invokeCallback() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedLimit(1));
+        CountDownLatch release = new CountDownLatch(1), completed = new CountDownLatch(2);
+        List<Object> results = new ArrayList<>();
+        CallbackHandler<String> handler = new CallbackHandler<String>() {
+            public void onSuccess(String result) {
+                synchronized (results) {
+                    results.add(result);
+                }
+            }
+
+            public void onError(Throwable exception) {
+                synchronized (results) {
+                    results.add(exception.getClass());
+                }
+            }
+
+            public void onComplete() {
+                completed.countDown();
+            }
+        };
+        Limiter.invoke(limiter, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+            return "rice";
+        }, handler, scheduler);
+        //许可已被占用，直接拒绝
+        Limiter.invoke(limiter, () -> "food", handler, scheduler);
+        release.countDown();
+        Assertions.assertTrue(completed.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(RejectedExecutionException.class, "rice"), results);
+        Assertions.assertEquals(0, limiter.getInflight());
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 20:55
+ **/
+@Slf4j
+class HistogramTest {
+
+    @Test
+    void bucket() {
+        //每个值都落在其所在桶的范围内，且相对误差不超过 1/32
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = Histogram.indexOf(value);
+            long highest = Histogram.highestValueOf(index);
+            Assertions.assertTrue(highest >= value);
+            Assertions.assertTrue(highest - value <= value / 32);
+        }
+        for (int i = 1; i < 64 * 32 - 5 * 32; i++) {
+            Assertions.assertEquals(i, Histogram.indexOf(Histogram.highestValueOf(i)));
+            Assertions.assertEquals(i, Histogram.indexOf(Histogram.highestValueOf(i - 1) + 1));
+        }
+    }
+
+    @Test
+    void percentile() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100_000; i++) histogram.record(i);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        log.info("snapshot: {}", snapshot);
+        Assertions.assertEquals(100_000, snapshot.getCount());
+        Assertions.assertEquals(50_000.5, snapshot.getMean(), 0.001);
+        Assertions.assertEquals(50_000, snapshot.getP50(), 50_000 / 32d);
+        Assertions.assertEquals(99_000, snapshot.getP99(), 99_000 / 32d);
+        Assertions.assertEquals(99_900, snapshot.getP999(), 99_900 / 32d);
+        Assertions.assertEquals(100_000, snapshot.getMax());
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.valueAtPercentile(50));
+    }
+
+    @Test
+    void concurrent() {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        IntStream.range(0, 4).forEach(i -> threads.add(new Thread(() -> {
+            for (int j = 0; j < 100_000; j++) histogram.record(ThreadLocalRandom.current().nextLong(1_000_000));
+        })));
+        threads.forEach(Thread::start);
+        threads.forEach(thread -> {
+            try {
+                thread.join();
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+        });
+        Assertions.assertEquals(400_000, histogram.getCount());
+        Assertions.assertTrue(histogram.getMax() < 1_000_000);
+    }
+}
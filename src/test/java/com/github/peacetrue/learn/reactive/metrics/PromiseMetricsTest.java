@@ -0,0 +1,95 @@
+package com.github.peacetrue.learn.reactive.metrics;
+
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 21:05
+ **/
+@Slf4j
+class PromiseMetricsTest {
+
+    @AfterEach
+    void tearDown() {
+        PromiseMetrics.setEnabled(false);
+        PromiseMetrics.reset();
+    }
+
+    @Test
+    void disabled() {
+        PromiseMetrics.setEnabled(false);
+        PromiseMetricsSnapshot before = PromiseMetrics.snapshot();
+        PromiseImpl.invoke(() -> 1, Schedulers.immediate()).thenApplyAsync(value -> value + 1, Schedulers.immediate());
+        PromiseMetricsSnapshot after = PromiseMetrics.snapshot();
+        Assertions.assertEquals(before.getCompleted(), after.getCompleted());
+        Assertions.assertEquals(before.getExecution().getCount(), after.getExecution().getCount());
+    }
+
+    @Test
+    void enabled() throws Exception {
+        PromiseMetrics.setEnabled(true);
+        PromiseMetrics.reset();
+        Scheduler scheduler = Schedulers.newSingle("metrics");
+        long inFlight = PromiseMetrics.snapshot().getInFlight();
+
+        PromiseImpl<Integer> pending = new PromiseImpl<>();
+        Assertions.assertEquals(inFlight + 1, PromiseMetrics.snapshot().getInFlight());
+        CountDownLatch latch = new CountDownLatch(1), release = new CountDownLatch(1);
+        //第一个阶段在追加第二个阶段后才结束，保证两个阶段融合
+        PromiseImpl<Integer> promise = PromiseImpl.invoke(() -> await(release), scheduler)
+                .thenApplyAsync(value -> value + 1, scheduler)
+                .whenSuccess(value -> {
+                    throw new IllegalStateException("callback");
+                })
+                .whenComplete(latch::countDown);
+        release.countDown();
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        pending.onError(new IllegalArgumentException());
+
+        PromiseMetricsSnapshot snapshot = PromiseMetrics.snapshot();
+        log.info("snapshot: {}", snapshot);
+        Assertions.assertEquals(2, promise.getValue());
+        Assertions.assertEquals(inFlight, snapshot.getInFlight());
+        Assertions.assertEquals(2, snapshot.getCompleted());
+        Assertions.assertEquals(1, snapshot.getFailed());
+        Assertions.assertEquals(1, snapshot.getCallbackExceptions());
+        //两个阶段融合为一次调度
+        Assertions.assertEquals(1, snapshot.getQueueWait().getCount());
+        Assertions.assertEquals(2, snapshot.getExecution().getCount());
+        scheduler.dispose();
+    }
+
+    private static int await(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.SECONDS) ? 1 : -1;
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Test
+    void jmx() throws Exception {
+        PromiseMetrics.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PromiseMetrics.OBJECT_NAME);
+        server.setAttribute(name, new javax.management.Attribute("Enabled", true));
+        Assertions.assertTrue(PromiseMetrics.isEnabled());
+        PromiseImpl.invoke(() -> 1, Schedulers.immediate());
+        Assertions.assertTrue((Long) server.getAttribute(name, "Completed") >= 1);
+        CompositeData execution = (CompositeData) server.getAttribute(name, "Execution");
+        Assertions.assertTrue((Long) execution.get("count") >= 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.github.peacetrue.learn.reactive.primitive;
+
+import com.github.peacetrue.learn.reactive.sample.LogSubscriberImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.LongConsumer;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 15:45
+ **/
+@Slf4j
+class PrimitivePublisherTest {
+
+    /** 每次请求 1 条，收集所有数据 */
+    private static class CollectSubscriber implements IntSubscriber, LongSubscriber, DoubleSubscriber {
+        private final List<Number> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable exception;
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        public void onNext(int item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        public void onNext(long item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        public void onNext(double item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        public void onError(Throwable throwable) {
+            this.exception = throwable;
+        }
+
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+
+    /** 按请求逐条调用 onNext 的数据源，不支持 tryOnNext，被过滤的数据需要下游补充请求 */
+    private static class OnNextOnlySubscription implements Flow.Subscription {
+        private final long count;
+        private final LongConsumer onNext;
+        private final Runnable onComplete;
+        private long index, requested;
+        private boolean emitting;
+
+        private OnNextOnlySubscription(long count, LongConsumer onNext, Runnable onComplete) {
+            this.count = count;
+            this.onNext = onNext;
+            this.onComplete = onComplete;
+        }
+
+        public void request(long n) {
+            requested += n;
+            //在 onNext 中请求时由外层循环继续发布，不递归
+            if (emitting) return;
+            emitting = true;
+            for (; requested > 0 && index < count; requested--) onNext.accept(index++);
+            if (index == count) {
+                index++;
+                onComplete.run();
+            }
+            emitting = false;
+        }
+
+        public void cancel() {
+            index = count + 1;
+        }
+    }
+
+    @Test
+    void onNextOnly() {
+        CollectSubscriber subscriber = new CollectSubscriber();
+        new IntPublisher() {
+            public void subscribe(IntSubscriber downstream) {
+                downstream.onSubscribe(new OnNextOnlySubscription(10, i -> downstream.onNext((int) i), downstream::onComplete));
+            }
+        }.map(i -> i * 3).filter(i -> i % 2 == 0).subscribe(subscriber);
+        new LongPublisher() {
+            public void subscribe(LongSubscriber downstream) {
+                downstream.onSubscribe(new OnNextOnlySubscription(10, downstream::onNext, downstream::onComplete));
+            }
+        }.map(i -> i + 1).filter(i -> i > 8).subscribe(subscriber);
+        new DoublePublisher() {
+            public void subscribe(DoubleSubscriber downstream) {
+                downstream.onSubscribe(new OnNextOnlySubscription(4, i -> downstream.onNext(i / 2D), downstream::onComplete));
+            }
+        }.map(d -> d * 2).filter(d -> d >= 2).subscribe(subscriber);
+        //map 之后的 filter 过滤掉数据时，map 向上游补充请求，不会停滞
+        Assertions.assertEquals(List.of(0, 6, 12, 18, 24, 9L, 10L, 2D, 3D), subscriber.items);
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void mapFilter() {
+        CollectSubscriber subscriber = new CollectSubscriber();
+        IntPublisher.range(0, 10)
+                .map(i -> i * 3)
+                .filter(i -> i % 2 == 0)
+                .map(i -> i + 1)
+                .filter(i -> i > 1)
+                .subscribe(subscriber);
+        Assertions.assertEquals(List.of(7, 13, 19, 25), subscriber.items);
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void reduce() {
+        CollectSubscriber subscriber = new CollectSubscriber();
+        IntPublisher.of(3, 1, 2).sum().subscribe(subscriber);
+        IntPublisher.of(3, 1, 2).min().subscribe(subscriber);
+        IntPublisher.of(3, 1, 2).max().subscribe(subscriber);
+        IntPublisher.of().sum().subscribe(subscriber);
+        IntPublisher.of().max().subscribe(subscriber);
+        Assertions.assertEquals(List.of(6, 1, 3, 0), subscriber.items);
+    }
+
+    @Test
+    void longAndDouble() {
+        CollectSubscriber subscriber = new CollectSubscriber();
+        LongPublisher.range(0, 1_000_000).filter(i -> i % 2 == 1).sum().subscribe(subscriber);
+        DoublePublisher.generate(4, i -> i / 2D).map(d -> d * 2).max().subscribe(subscriber);
+        Assertions.assertEquals(List.of(250_000_000_000L, 3D), subscriber.items);
+    }
+
+    @Test
+    void error() {
+        CollectSubscriber subscriber = new CollectSubscriber();
+        IntPublisher.range(0, 10).map(i -> 10 / (i - 2)).subscribe(subscriber);
+        Assertions.assertEquals(List.of(-5, -10), subscriber.items);
+        Assertions.assertTrue(subscriber.exception instanceof ArithmeticException);
+        Assertions.assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void boxed() {
+        IntPublisher.range(0, 4).map(i -> i * i).boxed().subscribe(new LogSubscriberImpl<>(Long.MAX_VALUE));
+    }
+}
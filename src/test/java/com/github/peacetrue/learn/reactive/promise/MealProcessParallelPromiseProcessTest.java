@@ -6,8 +6,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.concurrent.locks.LockSupport;
-
 /**
  * @author : xiayx
  * @since : 2020-12-20 09:21
@@ -17,7 +15,6 @@ class MealProcessParallelPromiseProcessTest {
 
     @Test
     void parallelPromise() throws Exception {
-        Thread thread = Thread.currentThread();
         MealProcess mealProcess = new MealProcess();
         long start = System.currentTimeMillis();
         PromiseProcess<String> promise = PromiseProcess.invoke(mealProcess::cookRice)
@@ -31,11 +28,11 @@ class MealProcessParallelPromiseProcessTest {
                 });
         promise.subscribe(new CallbackSubscriber<>() {
             public void onComplete() {
-                LockSupport.unpark(thread);
+                log.info("吃饭流程（订阅）完成");
             }
         });
         log.info("吃饭流程（阻塞）共花费 {} 毫秒", System.currentTimeMillis() - start);
-        LockSupport.park();
+        promise.join();
         Assertions.assertTrue(promise.isSuccess());
     }
 }
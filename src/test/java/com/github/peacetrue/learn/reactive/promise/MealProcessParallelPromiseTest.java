@@ -6,8 +6,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.concurrent.locks.LockSupport;
-
 /**
  * @author : xiayx
  * @since : 2020-12-20 09:21
@@ -17,7 +15,6 @@ class MealProcessParallelPromiseTest {
 
     @Test
     void parallelPromise() throws Exception {
-        Thread thread = Thread.currentThread();
         MealProcess mealProcess = new MealProcess();
         long start = System.currentTimeMillis();
         PromiseImpl<String> promise = PromiseImpl.invoke(mealProcess::cookRice)
@@ -28,10 +25,23 @@ class MealProcessParallelPromiseTest {
                 })
                 .whenSuccess(s -> {
                     log.info("吃饭流程（并行）共花费 {} 毫秒", System.currentTimeMillis() - start);
-                })
-                .whenComplete(() -> LockSupport.unpark(thread));
+                });
         log.info("吃饭流程（阻塞）共花费 {} 毫秒", System.currentTimeMillis() - start);
-        LockSupport.park();
+        promise.join();
         Assertions.assertTrue(promise.isSuccess());
     }
+
+    @Test
+    void parallelPromiseScope() {
+        MealProcess mealProcess = new MealProcess();
+        long start = System.currentTimeMillis();
+        //作用域关闭时所有分支都已结束，任一分支失败时取消其他分支
+        try (PromiseScope scope = new PromiseScope(2)) {
+            PromiseImpl<String> rice = scope.fork(mealProcess::cookRice);
+            PromiseImpl<String> food = scope.fork(() -> mealProcess.cookFood(mealProcess.buyFood()));
+            scope.completion().join();
+            mealProcess.eat(rice.getValue(), food.getValue());
+        }
+        log.info("吃饭流程（作用域）共花费 {} 毫秒", System.currentTimeMillis() - start);
+    }
 }
@@ -1,10 +1,21 @@
 package com.github.peacetrue.learn.reactive.promise;
 
 import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -53,4 +64,287 @@ class PromiseImplTest {
         LockSupport.park(this);
         Assertions.assertTrue(promise.isSuccess());
     }
+
+    @Test
+    void concurrentWhen() throws Exception {
+        int threads = 4, times = 10_000;
+        for (int round = 0; round < 20; round++) {
+            PromiseImpl<String> promise = new PromiseImpl<>();
+            AtomicInteger invoked = new AtomicInteger();
+            CountDownLatch ready = new CountDownLatch(threads), done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                new Thread(() -> {
+                    ready.countDown();
+                    for (int j = 0; j < times; j++) promise.whenSuccess(s -> invoked.incrementAndGet());
+                    done.countDown();
+                }).start();
+            }
+            ready.await();
+            promise.onSuccess("生的菜");
+            promise.onSuccess("熟的菜");
+            Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+            //注册和完成同时进行，每个回调恰好执行一次
+            Assertions.assertEquals(threads * times, invoked.get());
+            Assertions.assertEquals("生的菜", promise.getValue());
+        }
+    }
+
+    @Test
+    void zipAll() {
+        List<PromiseImpl<Integer>> promises = new ArrayList<>();
+        for (int i = 0; i < 200; i++) promises.add(new PromiseImpl<>());
+        PromiseImpl<Object[]> promise = PromiseImpl.zipAll(promises);
+        //逆序完成，结果仍按输入顺序排列
+        for (int i = promises.size() - 1; i >= 0; i--) {
+            Assertions.assertFalse(promise.isCompleted());
+            promises.get(i).onSuccess(i);
+        }
+        Assertions.assertTrue(promise.isSuccess());
+        for (int i = 0; i < promises.size(); i++) Assertions.assertEquals(i, promise.getValue()[i]);
+    }
+
+    @Test
+    void all() throws Exception {
+        MealProcess mealProcess = new MealProcess();
+        Promise<List<String>> promise = Promise.all(Arrays.asList(
+                PromiseImpl.invoke(mealProcess::buyFood),
+                PromiseImpl.invoke(mealProcess::cookRice)
+        ));
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.whenComplete(latch::countDown);
+        latch.await();
+        Assertions.assertTrue(((PromiseImpl<List<String>>) promise).isSuccess());
+        Assertions.assertEquals(Arrays.asList("生的菜", "熟的饭"), ((PromiseImpl<List<String>>) promise).getValue());
+    }
+
+    @Test
+    void allFailFast() {
+        PromiseImpl<String> never = new PromiseImpl<>(), failed = new PromiseImpl<>();
+        PromiseImpl<List<String>> promise = PromiseImpl.all(Arrays.asList(never, failed));
+        IllegalStateException exception = new IllegalStateException();
+        failed.onError(exception);
+        //无需等待其他承诺
+        Assertions.assertTrue(promise.isError());
+        Assertions.assertSame(exception, promise.getException());
+    }
+
+    @Test
+    void any() {
+        PromiseImpl<String> first = new PromiseImpl<>(), second = new PromiseImpl<>();
+        PromiseImpl<String> promise = PromiseImpl.any(Arrays.asList(first, second));
+        first.onError(new IllegalStateException());
+        Assertions.assertFalse(promise.isCompleted());
+        second.onSuccess("熟的饭");
+        Assertions.assertEquals("熟的饭", promise.getValue());
+
+        PromiseImpl<String> third = new PromiseImpl<>();
+        PromiseImpl<String> failed = PromiseImpl.any(Arrays.asList(third));
+        third.onError(new IllegalStateException());
+        Assertions.assertTrue(failed.isError());
+        Assertions.assertEquals(1, failed.getException().getSuppressed().length);
+    }
+
+    /** 阻塞直到被中断的操作 */
+    private static String blockUntilInterrupted(CountDownLatch started, CountDownLatch interrupted) {
+        started.countDown();
+        try {
+            Thread.sleep(10_000L);
+        } catch (InterruptedException exception) {
+            interrupted.countDown();
+        }
+        return "";
+    }
+
+    @Test
+    void cancelPropagatesUpstream() throws Exception {
+        CountDownLatch started = new CountDownLatch(1), interrupted = new CountDownLatch(1);
+        PromiseImpl<String> upstream = PromiseImpl.invoke(() -> blockUntilInterrupted(started, interrupted));
+        PromiseImpl<String> downstream = upstream.thenApplyAsync(String::trim).thenApplyAsync(String::trim);
+        Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(downstream.cancel(true));
+        Assertions.assertFalse(downstream.cancel(true));
+        Assertions.assertTrue(downstream.isCancelled());
+        Assertions.assertTrue(upstream.isCancelled());
+        Assertions.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelZip() throws Exception {
+        CountDownLatch started = new CountDownLatch(1), interrupted = new CountDownLatch(1);
+        PromiseImpl<String> slow = PromiseImpl.invoke(() -> blockUntilInterrupted(started, interrupted));
+        PromiseImpl<String> fast = PromiseImpl.invoke(() -> "fast");
+        PromiseImpl<Tuple2<String, String>> zip = fast.zip(slow);
+        Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+        zip.cancel(true);
+        Assertions.assertTrue(slow.isCancelled());
+        Assertions.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelBeforeStart() throws Exception {
+        Scheduler single = Schedulers.newSingle("cancel");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger invocations = new AtomicInteger();
+        PromiseImpl<Integer> blocking = PromiseImpl.invoke(() -> {
+            try {
+                return release.await(1, TimeUnit.SECONDS) ? 0 : -1;
+            } catch (InterruptedException exception) {
+                return -1;
+            }
+        }, single);
+        //排在阻塞任务后面，取消后跳过
+        PromiseImpl<Integer> pending = PromiseImpl.invoke(invocations::incrementAndGet, single);
+        Assertions.assertTrue(pending.cancel(false));
+        release.countDown();
+        CountDownLatch latch = new CountDownLatch(1);
+        PromiseImpl.invoke(() -> 0, single).whenComplete(latch::countDown);
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, blocking.getValue());
+        Assertions.assertEquals(0, invocations.get());
+        single.dispose();
+    }
+
+    @Test
+    void orTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1), interrupted = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        PromiseImpl<String> promise = PromiseImpl.invoke(() -> blockUntilInterrupted(started, interrupted))
+                .orTimeout(Duration.ofMillis(50))
+                .whenComplete(completed::countDown);
+        Assertions.assertTrue(completed.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(promise.getException() instanceof TimeoutException);
+        Assertions.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelHook() {
+        //先取消再注册，钩子立即执行
+        PromiseImpl<String> cancelled = new PromiseImpl<>();
+        Assertions.assertTrue(cancelled.cancel(true));
+        List<Boolean> interrupts = new ArrayList<>();
+        cancelled.onCancel(interrupts::add);
+        Assertions.assertEquals(List.of(true), interrupts);
+
+        //正常完成后注册，钩子不执行
+        PromiseImpl<String> succeeded = new PromiseImpl<>();
+        succeeded.onSuccess("value");
+        succeeded.onCancel(interrupts::add);
+        Assertions.assertEquals(List.of(true), interrupts);
+
+        //用户抛出的超时异常不视为取消
+        PromiseImpl<String> failed = new PromiseImpl<>();
+        failed.onCancel(interrupts::add);
+        failed.onError(new TimeoutException("user timeout"));
+        failed.onCancel(interrupts::add);
+        Assertions.assertEquals(List.of(true), interrupts);
+    }
+
+    @Test
+    void completeOnTimeout() throws Exception {
+        CountDownLatch completed = new CountDownLatch(1);
+        PromiseImpl<String> promise = new PromiseImpl<String>()
+                .completeOnTimeout("default", Duration.ofMillis(50))
+                .whenComplete(completed::countDown);
+        Assertions.assertTrue(completed.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("default", promise.getValue());
+
+        //先完成则不受影响
+        PromiseImpl<String> done = PromiseImpl.invoke(() -> "value", Schedulers.immediate())
+                .completeOnTimeout("default", Duration.ofMillis(10));
+        Assertions.assertEquals("value", done.getValue());
+        Assertions.assertFalse(done.getException() instanceof CancellationException);
+    }
+
+    @Test
+    void thenApply() {
+        PromiseImpl<Integer> source = new PromiseImpl<>();
+        Thread[] threads = new Thread[1];
+        PromiseImpl<Integer> promise = source.thenApply(value -> {
+            threads[0] = Thread.currentThread();
+            return value + 1;
+        });
+        source.onSuccess(1);
+        //在完成承诺的线程上同步执行
+        Assertions.assertEquals(Thread.currentThread(), threads[0]);
+        Assertions.assertEquals(2, promise.getValue());
+    }
+
+    @Test
+    void deepThenApply() {
+        PromiseImpl<Integer> source = new PromiseImpl<>();
+        PromiseImpl<Integer> promise = source;
+        for (int i = 0; i < 100_000; i++) promise = promise.thenApply(value -> value + 1);
+        source.onSuccess(0);
+        Assertions.assertEquals(100_000, promise.getValue());
+
+        //取消同样沿着长链传播
+        PromiseImpl<Integer> cancelSource = new PromiseImpl<>();
+        PromiseImpl<Integer> cancelPromise = cancelSource;
+        for (int i = 0; i < 100_000; i++) cancelPromise = cancelPromise.thenApply(value -> value + 1);
+        cancelPromise.cancel(false);
+        Assertions.assertTrue(cancelSource.isCancelled());
+    }
+
+    /** 递归的异步循环 */
+    private static Promise<Integer> countDown(PromiseImpl<Integer> trigger, int remaining) {
+        if (remaining == 0) return trigger;
+        return PromiseImpl.invoke(() -> remaining, Schedulers.immediate())
+                .thenCompose(value -> countDown(trigger, value - 1));
+    }
+
+    @Test
+    void deepThenCompose() {
+        PromiseImpl<Integer> trigger = new PromiseImpl<>();
+        Promise<Integer> promise = countDown(trigger, 100_000);
+        trigger.onSuccess(-1);
+        Assertions.assertEquals(-1, ((PromiseImpl<Integer>) promise).getValue());
+
+        PromiseImpl<String> failed = PromiseImpl.invoke(() -> 1, Schedulers.immediate())
+                .thenCompose(value -> {
+                    throw new IllegalStateException("compose");
+                });
+        Assertions.assertTrue(failed.getException() instanceof IllegalStateException);
+    }
+
+    @Test
+    void fusion() throws Exception {
+        Scheduler single = Schedulers.newSingle("fusion");
+        AtomicInteger scheduled = new AtomicInteger();
+        Scheduler counting = task -> {
+            scheduled.incrementAndGet();
+            single.schedule(task);
+        };
+        CountDownLatch release = new CountDownLatch(1);
+        PromiseImpl<Integer> source = PromiseImpl.invoke(() -> {
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+            return 1;
+        }, counting);
+        PromiseImpl<Integer> middle = source.thenApplyAsync(value -> value + 1, counting);
+        PromiseImpl<Integer> last = middle.thenApplyAsync(value -> value * 10, counting);
+        //已有后续阶段的承诺不能再融合，单独调度
+        PromiseImpl<Integer> branch = middle.thenApplyAsync(value -> value - 1, counting);
+
+        CountDownLatch latch = new CountDownLatch(2);
+        last.whenComplete(latch::countDown);
+        branch.whenComplete(latch::countDown);
+        release.countDown();
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, middle.getValue());
+        Assertions.assertEquals(20, last.getValue());
+        Assertions.assertEquals(1, branch.getValue());
+        Assertions.assertEquals(2, scheduled.get());
+
+        //任务结束后追加的转换不再融合
+        PromiseImpl<Integer> after = last.thenApplyAsync(value -> value + 1, counting);
+        CountDownLatch afterLatch = new CountDownLatch(1);
+        after.whenComplete(afterLatch::countDown);
+        Assertions.assertTrue(afterLatch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(21, after.getValue());
+        Assertions.assertEquals(3, scheduled.get());
+        single.dispose();
+    }
 }
@@ -6,6 +6,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -69,4 +72,57 @@ class PromiseProcessTest {
         LockSupport.park(this);
         Assertions.assertTrue(promise.isSuccess());
     }
+
+    @Test
+    void multicast() throws InterruptedException {
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1), release = new CountDownLatch(1);
+        PromiseProcess<Integer> promise = PromiseProcess.invoke(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+            return invocations.incrementAndGet();
+        });
+        Assertions.assertFalse(promise.isConnected());
+
+        CountDownLatch received = new CountDownLatch(3);
+        AtomicInteger sum = new AtomicInteger();
+        CallbackSubscriber<Integer> subscriber = new CallbackSubscriber<>() {
+            public void onSuccess(Integer result) {
+                sum.addAndGet(result);
+                received.countDown();
+            }
+        };
+        promise.subscribe(subscriber);
+        Assertions.assertTrue(running.await(1, TimeUnit.SECONDS));
+        //执行期间订阅，只注册回调
+        promise.subscribe(subscriber);
+        Assertions.assertFalse(promise.connect());
+        release.countDown();
+        //完成后订阅，重放缓存的结果
+        promise.whenComplete(() -> promise.subscribe(subscriber));
+        Assertions.assertTrue(received.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, invocations.get());
+        Assertions.assertEquals(3, sum.get());
+    }
+
+    @Test
+    void zipNotRestartUpstream() throws InterruptedException {
+        AtomicInteger invocations = new AtomicInteger();
+        PromiseProcess<Integer> upstream = PromiseProcess.invoke(invocations::incrementAndGet);
+        PromiseProcess<Tuple2<Integer, Integer>> first = upstream.zip(upstream.thenApplyAsync(value -> value * 10));
+        PromiseProcess<Integer> second = upstream.thenApplyAsync(value -> value + 1);
+
+        CountDownLatch latch = new CountDownLatch(2);
+        first.whenComplete(latch::countDown).connect();
+        second.whenComplete(latch::countDown).connect();
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, invocations.get());
+        Assertions.assertEquals(1, first.getValue().getFirst());
+        Assertions.assertEquals(10, first.getValue().getSecond());
+        Assertions.assertEquals(2, second.getValue());
+    }
 }
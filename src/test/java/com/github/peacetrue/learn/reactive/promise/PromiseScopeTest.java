@@ -0,0 +1,151 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.scheduler.Scheduler;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-18 02:20
+ **/
+@Slf4j
+class PromiseScopeTest {
+
+    /** 每个测试方法使用新的实例 */
+    private final Scheduler scheduler = Schedulers.newBounded("scope", 8);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    /** 一直阻塞直到被中断 */
+    private static String block(CountDownLatch started, AtomicInteger exited) {
+        started.countDown();
+        try {
+            Thread.sleep(10_000);
+            return "finished";
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException("interrupted", exception);
+        } finally {
+            exited.incrementAndGet();
+        }
+    }
+
+    @Test
+    void maxConcurrency() {
+        AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+        List<PromiseImpl<Integer>> promises = new ArrayList<>();
+        try (PromiseScope scope = new PromiseScope(scheduler, 3, PromiseScope.OnFailure.CANCEL)) {
+            for (int i = 0; i < 20; i++) {
+                int index = i;
+                promises.add(scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    MealProcess.sleep(5);
+                    running.decrementAndGet();
+                    return index;
+                }));
+            }
+            scope.completion().join();
+            Assertions.assertEquals(0, scope.getActive());
+        }
+        Assertions.assertEquals(3, maxRunning.get());
+        for (int i = 0; i < promises.size(); i++) Assertions.assertEquals(i, promises.get(i).getValue());
+    }
+
+    @Test
+    void cancelOnFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(3), release = new CountDownLatch(1);
+        AtomicInteger exited = new AtomicInteger();
+        AtomicInteger queuedInvocations = new AtomicInteger(), scheduled = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("branch failed");
+        Scheduler counting = task -> {
+            scheduled.incrementAndGet();
+            scheduler.schedule(task);
+        };
+        try (PromiseScope scope = new PromiseScope(counting, 4, PromiseScope.OnFailure.CANCEL)) {
+            List<PromiseImpl<String>> siblings = new ArrayList<>();
+            for (int i = 0; i < 3; i++) siblings.add(scope.fork(() -> block(started, exited)));
+            //占用最后一个并发数，等其他任务排队后再失败
+            PromiseImpl<String> failed = scope.fork(() -> {
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                throw failure;
+            });
+            List<PromiseImpl<String>> queued = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                queued.add(scope.fork(() -> {
+                    queuedInvocations.incrementAndGet();
+                    return "queued";
+                }));
+            }
+            Assertions.assertEquals(7, scope.getActive());
+            release.countDown();
+            Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+            CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> scope.completion().join());
+            Assertions.assertSame(failure, exception.getCause());
+            Assertions.assertTrue(failed.isError());
+            siblings.forEach(sibling -> Assertions.assertTrue(sibling.isCancelled()));
+            //失败后派生的承诺直接取消
+            Assertions.assertTrue(scope.fork(() -> "late").isCancelled());
+            Assertions.assertEquals(List.of(failure), scope.getFailures());
+            //排队等待的任务随失败取消，不会执行
+            queued.forEach(promise -> Assertions.assertTrue(promise.isCancelled()));
+        }
+        Assertions.assertEquals(3, exited.get());
+        Assertions.assertEquals(0, queuedInvocations.get());
+        //排队的任务没有取得并发数，不会被调度
+        Assertions.assertEquals(4, scheduled.get());
+    }
+
+    @Test
+    void collect() {
+        try (PromiseScope scope = new PromiseScope(scheduler, 2, PromiseScope.OnFailure.COLLECT)) {
+            List<PromiseImpl<Integer>> promises = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                int index = i;
+                promises.add(scope.fork(() -> {
+                    if (index % 3 == 0) throw new IllegalArgumentException("failed " + index);
+                    return index;
+                }));
+            }
+            CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> scope.completion().join());
+            Assertions.assertEquals("2 of 6 forked promises failed", exception.getCause().getMessage());
+            Assertions.assertEquals(2, exception.getCause().getSuppressed().length);
+            //其他任务继续执行
+            Assertions.assertEquals(4, promises.stream().filter(PromiseImpl::isSuccess).count());
+        }
+    }
+
+    @Test
+    void close() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger exited = new AtomicInteger();
+        PromiseScope scope = new PromiseScope(scheduler, 2, PromiseScope.OnFailure.CANCEL);
+        PromiseImpl<String> first = scope.fork(() -> block(started, exited));
+        PromiseImpl<String> second = scope.fork(() -> block(started, exited));
+        PromiseImpl<String> queued = scope.fork(() -> block(started, exited));
+        Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+        scope.close();
+        //关闭返回时任务都已退出
+        Assertions.assertEquals(2, exited.get());
+        Assertions.assertTrue(first.isCancelled() && second.isCancelled() && queued.isCancelled());
+        Assertions.assertThrows(IllegalStateException.class, () -> scope.fork(() -> "closed"));
+        Assertions.assertNull(scope.completion().join());
+        Thread.sleep(20);
+        Assertions.assertEquals(2, exited.get());
+    }
+}
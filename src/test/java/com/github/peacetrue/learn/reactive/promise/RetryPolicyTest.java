@@ -0,0 +1,111 @@
+package com.github.peacetrue.learn.reactive.promise;
+
+import com.github.peacetrue.learn.reactive.metrics.PromiseMetrics;
+import com.github.peacetrue.learn.reactive.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-18 00:30
+ **/
+@Slf4j
+class RetryPolicyTest {
+
+    /** 前 failures 次失败，之后成功 */
+    private static PromiseImpl<Integer> flaky(AtomicInteger calls, int failures) {
+        return PromiseImpl.invoke(() -> {
+            int call = calls.incrementAndGet();
+            if (call <= failures) throw new UncheckedIOException(new IOException("attempt " + call + " failed"));
+            return call;
+        }, Schedulers.immediate());
+    }
+
+    @Test
+    void delay() {
+        RetryPolicy policy = RetryPolicy.maxAttempts(10).backoff(Duration.ofMillis(10), Duration.ofMillis(50), 2);
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), policy.delayNanos(1));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(20), policy.delayNanos(2));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(40), policy.delayNanos(3));
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(50), policy.delayNanos(4));
+        //随机扣减不超过 jitter 比例
+        RetryPolicy jitter = policy.jitter(0.5);
+        for (int i = 0; i < 100; i++) {
+            long delay = jitter.delayNanos(2);
+            Assertions.assertTrue(delay > TimeUnit.MILLISECONDS.toNanos(10) && delay <= TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        Assertions.assertEquals(0, RetryPolicy.maxAttempts(3).delayNanos(2));
+    }
+
+    @Test
+    void retry() {
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        PromiseImpl<Integer> promise = PromiseImpl.retry(() -> flaky(calls, 2),
+                RetryPolicy.maxAttempts(5).fixedDelay(Duration.ofMillis(20)));
+        //等待期间不占用调用者线程
+        Assertions.assertFalse(promise.isCompleted());
+        Assertions.assertEquals(3, promise.join());
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    @Test
+    void exhausted() {
+        AtomicInteger calls = new AtomicInteger();
+        PromiseImpl<Integer> promise = PromiseImpl.retry(() -> flaky(calls, 10), RetryPolicy.maxAttempts(3));
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, promise::join);
+        Assertions.assertEquals("attempt 3 failed", exception.getCause().getCause().getMessage());
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    void retryOn() {
+        AtomicInteger calls = new AtomicInteger();
+        PromiseImpl<Integer> promise = PromiseImpl.retry(() -> {
+            calls.incrementAndGet();
+            return PromiseImpl.invoke(() -> {
+                throw new IllegalArgumentException("bad input");
+            }, Schedulers.immediate());
+        }, RetryPolicy.maxAttempts(3).retryOn(UncheckedIOException.class));
+        //不满足条件的异常不重试
+        Assertions.assertThrows(CompletionException.class, promise::join);
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void cancel() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PromiseImpl<Integer> promise = PromiseImpl.retry(() -> flaky(calls, 10),
+                RetryPolicy.maxAttempts(5).fixedDelay(Duration.ofMillis(50)));
+        Assertions.assertEquals(1, calls.get());
+        promise.cancel(false);
+        Thread.sleep(100);
+        //取消后等待中的重试不再执行
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertThrows(CancellationException.class, promise::join);
+    }
+
+    @Test
+    void metrics() {
+        PromiseMetrics.setEnabled(true);
+        PromiseMetrics.reset();
+        try {
+            AtomicInteger calls = new AtomicInteger();
+            PromiseImpl.retry(() -> flaky(calls, 2), RetryPolicy.maxAttempts(5)).join();
+            Assertions.assertEquals(1, PromiseMetrics.snapshot().getAttempts().getCount());
+            Assertions.assertEquals(3, PromiseMetrics.snapshot().getAttempts().getMax());
+        } finally {
+            PromiseMetrics.setEnabled(false);
+            PromiseMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.peacetrue.learn.reactive.sample;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 17:55
+ **/
+@Slf4j
+class AsyncLogSubscriberTest {
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    void subscribe() throws InterruptedException {
+        AsyncLogSubscriber<Integer> subscriber = new AsyncLogSubscriber<>(2);
+        new SamplePublisher<>(range(10)).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(10, subscriber.getWritten());
+        Assertions.assertEquals(0, subscriber.getDropped());
+    }
+
+    @Test
+    void sample() throws InterruptedException {
+        //缓冲区足够大，只受采样影响
+        AsyncLogSubscriber<Integer> subscriber = new AsyncLogSubscriber<>(Long.MAX_VALUE, 1024, 64, 10, 0);
+        new SamplePublisher<>(range(1000)).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(100, subscriber.getWritten());
+        Assertions.assertEquals(900, subscriber.getSampled());
+    }
+
+    @Test
+    void rateLimit() throws InterruptedException {
+        AsyncLogSubscriber<Integer> subscriber = new AsyncLogSubscriber<>(Long.MAX_VALUE, 1024, 64, 1, 100);
+        new SamplePublisher<>(range(1000)).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(subscriber.getWritten() >= 100);
+        Assertions.assertEquals(1000, subscriber.getWritten() + subscriber.getDropped());
+    }
+
+    @Test
+    void drop() throws InterruptedException {
+        //缓冲区很小，发布速度远超写出速度时丢弃数据，但不会阻塞发布线程
+        AsyncLogSubscriber<Integer> subscriber = new AsyncLogSubscriber<>(Long.MAX_VALUE, 4, 4, 1, 0);
+        new SamplePublisher<>(range(100_000)).subscribe(subscriber);
+        Assertions.assertTrue(subscriber.awaitTermination(5, TimeUnit.SECONDS));
+        log.info("written: {}, dropped: {}", subscriber.getWritten(), subscriber.getDropped());
+        Assertions.assertEquals(100_000, subscriber.getWritten() + subscriber.getDropped());
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AsyncLogSubscriber<Integer> subscriber = new AsyncLogSubscriber<>(Long.MAX_VALUE);
+        //上游发布几条数据后不再终止
+        Flow.Publisher<Integer> publisher = downstream -> {
+            downstream.onSubscribe(new Flow.Subscription() {
+                public void request(long n) {
+                }
+
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+            for (int i = 0; i < 3; i++) downstream.onNext(i);
+        };
+        publisher.subscribe(subscriber);
+        Assertions.assertFalse(subscriber.awaitTermination(50, TimeUnit.MILLISECONDS));
+        //取消后写出已缓冲的数据，后台线程退出
+        subscriber.cancel();
+        Assertions.assertTrue(subscriber.awaitTermination(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertEquals(3, subscriber.getWritten());
+    }
+}
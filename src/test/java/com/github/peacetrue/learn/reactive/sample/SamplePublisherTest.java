@@ -1,6 +1,8 @@
 package com.github.peacetrue.learn.reactive.sample;
 
+import com.github.peacetrue.learn.reactive.flow.FlowFixtures;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -19,30 +21,116 @@ class SamplePublisherTest {
         List<Integer> integers = IntStream.range(0, 10).boxed().collect(Collectors.toList());
         SamplePublisher<Integer> publisher = new SamplePublisher<>(integers);
         publisher.subscribe(new LogSubscriber<>() {
+            private Flow.Subscription subscription;
             private int times = 0;
+            private int remaining = 0;
 
             public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                request();
+            }
+
+            private void request() {
                 //限流控制
                 times++;
-                log.info("第 {} 次，请求 {} 条记录", times, times * 2);
-                subscription.request(times * 2);
+                remaining = times * 2;
+                log.info("第 {} 次，请求 {} 条记录", times, remaining);
+                subscription.request(remaining);
+            }
+
+            public void onNext(Integer item) {
+                LogSubscriber.super.onNext(item);
+                //当前批次处理完毕，请求下一批
+                if (--remaining == 0) request();
+            }
+        });
+        //2026-10-17 14:52:10,212 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.request - 第 1 次，请求 2 条记录
+        //2026-10-17 14:52:10,215 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 0
+        //2026-10-17 14:52:10,215 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 1
+        //2026-10-17 14:52:10,216 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.request - 第 2 次，请求 4 条记录
+        //2026-10-17 14:52:10,216 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 2
+        //2026-10-17 14:52:10,216 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 3
+        //2026-10-17 14:52:10,216 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 4
+        //2026-10-17 14:52:10,216 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 5
+        //2026-10-17 14:52:10,217 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.request - 第 3 次，请求 6 条记录
+        //2026-10-17 14:52:10,217 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 6
+        //2026-10-17 14:52:10,217 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 7
+        //2026-10-17 14:52:10,217 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 8
+        //2026-10-17 14:52:10,217 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 9
+        //2026-10-17 14:52:10,218 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onComplete - complete
+    }
+
+    private static class CountSubscriber implements Flow.Subscriber<Integer> {
+        private final long count;
+        private Flow.Subscription subscription;
+        private long received;
+        private boolean completed;
+
+        private CountSubscriber(long count) {
+            this.count = count;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(count);
+        }
+
+        public void onNext(Integer item) {
+            Assertions.assertEquals(received++, (long) item);
+            if (count != Long.MAX_VALUE && received % count == 0) subscription.request(count);
+        }
+
+        public void onError(Throwable throwable) {
+            Assertions.fail(throwable.getMessage());
+        }
+
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    void requestOneByOne() {
+        //每次在 onNext 中请求 1 条，不会栈溢出
+        CountSubscriber subscriber = new CountSubscriber(1);
+        new SamplePublisher<>(FlowFixtures.range(10_000_000)).subscribe(subscriber);
+        Assertions.assertEquals(10_000_000, subscriber.received);
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void requestUnbounded() {
+        CountSubscriber subscriber = new CountSubscriber(Long.MAX_VALUE);
+        new SamplePublisher<>(FlowFixtures.range(1000)).subscribe(subscriber);
+        Assertions.assertEquals(1000, subscriber.received);
+        Assertions.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void cancel() {
+        CountSubscriber subscriber = new CountSubscriber(1) {
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (item == 4) super.subscription.cancel();
+            }
+        };
+        new SamplePublisher<>(FlowFixtures.range(10)).subscribe(subscriber);
+        Assertions.assertEquals(5, subscriber.received);
+        Assertions.assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void requestIllegal() {
+        Throwable[] exception = new Throwable[1];
+        new SamplePublisher<>(FlowFixtures.range(10)).subscribe(new LogSubscriber<>() {
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+
+            public void onError(Throwable throwable) {
+                exception[0] = throwable;
             }
         });
-        //2020-12-21 16:14:25,540 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onSubscribe - 第 1 次，请求 2 条记录
-        //2020-12-21 16:14:25,547 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 0
-        //2020-12-21 16:14:25,547 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 1
-        //2020-12-21 16:14:25,548 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onSubscribe - 第 2 次，请求 4 条记录
-        //2020-12-21 16:14:25,549 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 1
-        //2020-12-21 16:14:25,549 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 2
-        //2020-12-21 16:14:25,550 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 3
-        //2020-12-21 16:14:25,550 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 4
-        //2020-12-21 16:14:25,550 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onSubscribe - 第 3 次，请求 6 条记录
-        //2020-12-21 16:14:25,551 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 4
-        //2020-12-21 16:14:25,551 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 5
-        //2020-12-21 16:14:25,551 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 6
-        //2020-12-21 16:14:25,551 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 7
-        //2020-12-21 16:14:25,551 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 8
-        //2020-12-21 16:14:25,552 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onNext - item: 9
-        //2020-12-21 16:14:25,552 [Test worker] INFO  c.g.p.l.r.sample.LogSubscriber.onComplete - complete
+        Assertions.assertTrue(exception[0] instanceof IllegalArgumentException);
     }
 }
@@ -0,0 +1,64 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 10:05
+ **/
+@Slf4j
+class SchedulersTest {
+
+    @Test
+    void immediate() {
+        Thread thread = Thread.currentThread();
+        PromiseImpl<Thread> promise = PromiseImpl.invoke(Thread::currentThread, Schedulers.immediate());
+        Assertions.assertTrue(promise.isSuccess());
+        Assertions.assertSame(thread, promise.getValue());
+    }
+
+    @Test
+    void bounded() throws Exception {
+        Scheduler scheduler = Schedulers.newBounded("bounded-test", 2);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            PromiseImpl.invoke(() -> {
+                threads.add(Thread.currentThread());
+                MealProcess.sleep(1);
+                return "";
+            }, scheduler).whenComplete(latch::countDown);
+        }
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        log.info("20 个任务使用了 {} 个线程", threads.size());
+        Assertions.assertTrue(threads.size() <= 2);
+        scheduler.dispose();
+    }
+
+    @Test
+    void worker() throws Exception {
+        Scheduler scheduler = Schedulers.newBounded("worker-test", 4);
+        Worker worker = scheduler.createWorker();
+        List<Integer> items = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            int item = i;
+            worker.schedule(() -> items.add(item));
+        }
+        worker.schedule(latch::countDown);
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) Assertions.assertEquals(i, items.get(i));
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.peacetrue.learn.reactive.scheduler;
+
+import com.github.peacetrue.learn.reactive.MealProcess;
+import com.github.peacetrue.learn.reactive.promise.PromiseImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比虚拟线程和每次新建平台线程执行大量吃饭流程
+ *
+ * @author : xiayx
+ * @since : 2026-10-17 11:02
+ **/
+@Slf4j
+class VirtualThreadSchedulerTest {
+
+    private static final int COUNT = 1000;
+
+    private long meals(Scheduler scheduler) throws InterruptedException {
+        MealProcess mealProcess = new MealProcess();
+        CountDownLatch latch = new CountDownLatch(COUNT);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < COUNT; i++) {
+            PromiseImpl.invoke(mealProcess::cookRice, scheduler)
+                    .zip(PromiseImpl.invoke(mealProcess::buyFood, scheduler).thenApplyAsync(mealProcess::cookFood, scheduler))
+                    .thenApplyAsync(tuple2 -> {
+                        mealProcess.eat(tuple2.getFirst(), tuple2.getSecond());
+                        return "";
+                    }, scheduler)
+                    .whenSuccess(s -> latch.countDown());
+        }
+        Assertions.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        return System.currentTimeMillis() - start;
+    }
+
+    @Test
+    void compare() throws Exception {
+        log.info("虚拟线程是否可用：{}", VirtualThreads.isSupported());
+        //预热
+        meals(Schedulers.newThread("warmup"));
+        long platform = meals(Schedulers.newThread("platform"));
+        long virtual = meals(Schedulers.newVirtual("virtual"));
+        log.info("{} 个吃饭流程，平台线程共花费 {} 毫秒，虚拟线程共花费 {} 毫秒", COUNT, platform, virtual);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.peacetrue.learn.reactive.timer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : xiayx
+ * @since : 2026-10-17 18:50
+ **/
+@Slf4j
+class HashedWheelTimerTest {
+
+    @Test
+    void expire() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("timer", Duration.ofMillis(1), 8);
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        //延迟超过一圈
+        Timeout timeout = timer.newTimeout(latch::countDown, Duration.ofMillis(50));
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.assertTrue(timeout.isExpired());
+        Assertions.assertFalse(timeout.cancel());
+        timer.stop();
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        HashedWheelTimer timer = new HashedWheelTimer("timer", Duration.ofMillis(1), 8);
+        AtomicInteger counter = new AtomicInteger();
+        Timeout timeout = timer.newTimeout(counter::incrementAndGet, Duration.ofMillis(20));
+        Assertions.assertTrue(timeout.cancel());
+        Assertions.assertTrue(timeout.isCancelled());
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(latch::countDown, Duration.ofMillis(40));
+        Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, counter.get());
+        Assertions.assertEquals(0, timer.pendingTimeouts());
+        timer.stop();
+    }
+
+    @Test
+    void many() throws InterruptedException {
+        //大量定时任务只占用一个线程
+        HashedWheelTimer timer = new HashedWheelTimer("timer", Duration.ofMillis(1), 512);
+        int count = 100_000;
+        CountDownLatch latch = new CountDownLatch(count / 2);
+        for (int i = 0; i < count; i++) {
+            Timeout timeout = timer.newTimeout(latch::countDown, Duration.ofMillis(i % 100));
+            if (i % 2 == 1) timeout.cancel();
+        }
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, timer.pendingTimeouts());
+        timer.stop();
+    }
+}